@@ -0,0 +1,78 @@
+import java.util.Random;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class AddDropHeuristicScheduler {
+    public static void main(String[] args) throws IOException {
+        int[] tamanhosPods = {10, 50, 100, 200, 500, 1000, 5000, 10000};
+        int[] tamanhosNodes = {5, 10, 20, 50, 100, 200};
+        int numberExecutions = 10;
+        long seed = 100; // Fixed seed for reproducibility
+
+        FileWriter writer = new FileWriter(new File("add_drop_heuristic.csv"));
+        writer.write("number of pods; number of nodes; add cost; add time (ms); drop cost; drop time (ms); greedy cost; greedy time (ms) \n");
+
+        for (int numPods : tamanhosPods) {
+            for (int numNodes : tamanhosNodes) {
+                // The only valid configuration when we consider 5 nodes is the one with 10 pods.
+                if (numNodes == 5 && numPods != 10)
+                    continue;
+
+                System.out.println("Total pods: " + numPods + " and Total Nodes: " + numNodes);
+
+                // Create the instance using random data with fixed seed for reproducibility
+                ProblemInstance instance = ProblemInstance.generate(numPods, numNodes, new Random(seed));
+
+                // ADD heuristic
+                AddHeuristic add = new AddHeuristic(instance);
+
+                long startTime = System.currentTimeMillis();
+                for (int i = 0; i < numberExecutions; i++) {
+                    add.execute();
+                }
+                long elapsedTimeAdd = (System.currentTimeMillis() - startTime) / numberExecutions;
+
+                double addCost = add.calculateTotalCost();
+
+                // DROP heuristic on the same instance
+                DropHeuristic drop = new DropHeuristic(instance);
+
+                startTime = System.currentTimeMillis();
+                for (int i = 0; i < numberExecutions; i++) {
+                    drop.execute();
+                }
+                long elapsedTimeDrop = (System.currentTimeMillis() - startTime) / numberExecutions;
+
+                double dropCost = drop.calculateTotalCost();
+
+                // Greedy heuristic on the same instance, for comparison
+                GreedyHeuristic greedy = new GreedyHeuristic(instance);
+
+                startTime = System.currentTimeMillis();
+                for (int i = 0; i < numberExecutions; i++) {
+                    greedy.execute();
+                }
+                long elapsedTimeGreedy = (System.currentTimeMillis() - startTime) / numberExecutions;
+
+                double greedyCost = greedy.calculateTotalCost();
+
+                // Print results
+                System.out.println("=== ADD/DROP Heuristic Results ===");
+                System.out.println("Used nodes: " + add.getOpenedNodesCount() + " (drop: " + drop.getOpenedNodesCount() + ")");
+                System.out.println("ADD cost: " + addCost + ", DROP cost: " + dropCost + " (greedy: " + greedyCost + ")");
+                System.out.println("Time taken: " + elapsedTimeAdd + " ms, " + elapsedTimeDrop + " ms (greedy: "
+                        + elapsedTimeGreedy + " ms)");
+                System.out.println("==================================\n");
+
+                // Write to CSV
+                writer.write(numPods + "; " + numNodes + "; " + addCost + "; " + elapsedTimeAdd + "; "
+                        + dropCost + "; " + elapsedTimeDrop + "; " + greedyCost + "; " + elapsedTimeGreedy + "\n");
+                writer.flush();
+            }
+        }
+
+        writer.close();
+        System.out.println("CSV file written successfully");
+    }
+}
@@ -0,0 +1,261 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Heurística ADD de localização de facilidades para o escalonamento de pods
+ * Começa com todos os nós fechados e, a cada passo, abre o nó de maior economia,
+ * trazendo para ele os pods que ficam mais baratos nele (primeiro os não alocados,
+ * que custam BIG_M). Para quando nenhum nó fechado traz economia positiva
+ * A economia de abrir j é a soma de (custo atual do pod - custo de alocação em j)
+ * dos pods que cabem em j, menos o custo de abertura de j. Os pods são escolhidos
+ * pela razão ganho/tamanho, agregados por (nó atual, classe de tamanho)
+ * O custo atual de um pod só diminui ao longo da execução, então a economia de um
+ * nó nunca aumenta: as economias ficam em uma fila de prioridade (MoveGainCache)
+ * como limites superiores e só o topo é reavaliado a cada passo (avaliação
+ * preguiçosa), em vez de recalcular todos os nós
+ */
+class AddHeuristic {
+    private int numNodes;
+    private int[] capacities;
+    private double[] openingCosts;
+    private double[] allocationCosts;
+    private int[] sizes;
+    private int[] podsBySizeClass;
+    private int[] sizeClassStarts;
+    private int[] nodesByAllocationCost;
+    private SolutionState state;
+    private NodeSizeClasses sizeClasses;
+    private MoveGainCache savings; // -economia de cada nó fechado (o menor valor é a maior economia)
+    private int[] versao;          // passo em que a economia guardada de cada nó foi calculada
+    private int[] proximoNaoAlocado; // por classe: posição do próximo pod não alocado em podsBySizeClass
+    private int[] cabeca;            // por classe: grupo atual na varredura de avaliarEconomia
+    private double bigM;             // custo de um pod não alocado
+    private int steps;
+
+    public AddHeuristic(ProblemInstance instance) {
+        this.numNodes = instance.getNumNodes();
+        this.capacities = instance.getCapacities();
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.sizes = instance.getSizeClasses();
+        this.podsBySizeClass = instance.getPodsBySizeClass();
+        this.sizeClassStarts = instance.getSizeClassStarts();
+        this.nodesByAllocationCost = instance.getNodesByAllocationCost();
+        this.state = new SolutionState(instance);
+        this.sizeClasses = new NodeSizeClasses(instance);
+        this.savings = new MoveGainCache(numNodes);
+        this.versao = new int[numNodes];
+        this.proximoNaoAlocado = new int[sizes.length];
+        this.cabeca = new int[sizes.length];
+
+        // Mais caro que abrir qualquer nó só para o pod: alocar é sempre melhor
+        double maiorCusto = 0.0;
+        for (int i = 0; i < numNodes; i++) {
+            maiorCusto = Math.max(maiorCusto, openingCosts[i] + allocationCosts[i]);
+        }
+        this.bigM = maiorCusto + 1.0;
+    }
+
+    /**
+     * Executa a heurística ADD
+     */
+    public void execute() {
+        state.clear();
+        sizeClasses.clear();
+        System.arraycopy(sizeClassStarts, 0, proximoNaoAlocado, 0, sizes.length);
+        steps = 0;
+
+        savings.clear();
+        for (int j = 0; j < numNodes; j++) {
+            atualizarEconomia(j);
+        }
+
+        while (!savings.isEmpty()) {
+            int j = savings.peek();
+
+            // Limite desatualizado: recalcula e volta ao topo da fila
+            if (versao[j] != steps) {
+                atualizarEconomia(j);
+                continue;
+            }
+
+            avaliarEconomia(j, true);
+            savings.remove(j);
+            steps++;
+        }
+
+        alocarRestantes();
+    }
+
+    /**
+     * Pods que não couberam em nenhum nó ao ser aberto (a capacidade de cada nó foi
+     * repartida com realocações): vão, dos maiores para os menores, para o nó de
+     * menor custo de alocação em que couberem, aberto ou não
+     */
+    private void alocarRestantes() {
+        for (int c = sizes.length - 1; c >= 0; c--) {
+            while (proximoNaoAlocado[c] < sizeClassStarts[c + 1]) {
+                int pod = podsBySizeClass[proximoNaoAlocado[c]];
+                int destino = -1;
+                for (int k = 0; k < numNodes && destino < 0; k++) {
+                    int node = nodesByAllocationCost[k];
+                    if (!state.isEmpty(node) && state.canAllocatePod(pod, node)) {
+                        destino = node;
+                    }
+                }
+                for (int k = 0; k < numNodes && destino < 0; k++) {
+                    if (state.canAllocatePod(pod, nodesByAllocationCost[k])) {
+                        destino = nodesByAllocationCost[k];
+                    }
+                }
+                if (destino < 0) {
+                    break;
+                }
+                state.allocatePod(pod, destino);
+                sizeClasses.addPod(destino, pod);
+                proximoNaoAlocado[c]++;
+            }
+        }
+    }
+
+    private void atualizarEconomia(int j) {
+        double economia = avaliarEconomia(j, false);
+        versao[j] = steps;
+        if (economia > 0) {
+            savings.set(j, -economia);
+        } else {
+            savings.remove(j);
+        }
+    }
+
+    /**
+     * Economia de abrir o nó fechado j. Os candidatos são os grupos (nó atual, classe)
+     * com custo atual maior que o de j; para cada classe eles são percorridos do nó
+     * mais caro para o mais barato (os não alocados primeiro), e a cada passo entra o
+     * grupo de maior razão ganho/tamanho entre as cabeças das classes, com quantos
+     * pods couberem (O(grupos · classes)). Pods não alocados têm sempre prioridade,
+     * dos maiores para os menores como no first-fit decreasing, para que nenhum fique
+     * de fora por ter dado lugar a uma realocação. Com aplicar, os pods são movidos para j
+     */
+    private double avaliarEconomia(int j, boolean aplicar) {
+        int numClasses = sizes.length;
+        Arrays.fill(cabeca, -1); // -1 = pods não alocados, k >= 0 = k-ésimo nó mais caro
+        int residual = capacities[j];
+        double economia = -openingCosts[j];
+
+        while (true) {
+            int melhorClasse = -1;
+            double melhorRazao = 0.0;
+            for (int c = 0; c < numClasses && sizes[c] <= residual; c++) {
+                int origem = avancarCabeca(j, c);
+                if (origem == -2) {
+                    continue;
+                }
+                double razao = origem < 0 ? Double.POSITIVE_INFINITY : (custoAtual(origem) - allocationCosts[j]) / sizes[c];
+                if (melhorClasse < 0 || razao >= melhorRazao) {
+                    melhorClasse = c;
+                    melhorRazao = razao;
+                }
+            }
+            if (melhorClasse < 0) {
+                break;
+            }
+
+            int c = melhorClasse;
+            int origem = avancarCabeca(j, c);
+            int disponiveis = origem < 0 ? sizeClassStarts[c + 1] - proximoNaoAlocado[c] : sizeClasses.getCount(origem, c);
+            int quantidade = Math.min(disponiveis, residual / sizes[c]);
+            residual -= quantidade * sizes[c];
+            economia += quantidade * (custoAtual(origem) - allocationCosts[j]);
+            cabeca[c]++;
+
+            for (int m = 0; aplicar && m < quantidade; m++) {
+                int pod;
+                if (origem < 0) {
+                    pod = podsBySizeClass[proximoNaoAlocado[c]++];
+                } else {
+                    pod = sizeClasses.getFirstPod(origem, c);
+                    sizeClasses.removePod(origem, pod);
+                }
+                state.allocatePod(pod, j);
+                sizeClasses.addPod(j, pod);
+            }
+        }
+        return economia;
+    }
+
+    /**
+     * Avança a cabeça da classe c até um grupo com pods e custo atual maior que o de
+     * j; retorna o nó do grupo (-1 = não alocados) ou -2 se a classe acabou
+     */
+    private int avancarCabeca(int j, int c) {
+        if (cabeca[c] == -1) {
+            if (proximoNaoAlocado[c] < sizeClassStarts[c + 1]) {
+                return -1;
+            }
+            cabeca[c] = 0;
+        }
+        while (cabeca[c] < numNodes) {
+            int origem = nodesByAllocationCost[numNodes - 1 - cabeca[c]];
+            if (allocationCosts[origem] <= allocationCosts[j]) {
+                break;
+            }
+            if (origem != j && sizeClasses.getCount(origem, c) > 0) {
+                return origem;
+            }
+            cabeca[c]++;
+        }
+        return -2;
+    }
+
+    private double custoAtual(int origem) {
+        return origem < 0 ? bigM : allocationCosts[origem];
+    }
+
+    /**
+     * Calcula o custo total da solução (pods não alocados não entram no custo)
+     */
+    public double calculateTotalCost() {
+        double totalCost = 0.0;
+        for (int i = 0; i < numNodes; i++) {
+            if (!state.isEmpty(i)) {
+                totalCost += openingCosts[i] + allocationCosts[i] * state.getPodCount(i);
+            }
+        }
+        return totalCost;
+    }
+
+    /**
+     * Retorna o número de nós abertos na solução
+     */
+    public int getOpenedNodesCount() {
+        return getOpenedNodes().cardinality();
+    }
+
+    /**
+     * Retorna os nós abertos (com pelo menos um pod) na solução
+     */
+    public BitSet getOpenedNodes() {
+        BitSet openedNodes = new BitSet(numNodes);
+        for (int i = 0; i < numNodes; i++) {
+            if (!state.isEmpty(i)) {
+                openedNodes.set(i);
+            }
+        }
+        return openedNodes;
+    }
+
+    /**
+     * Retorna o vetor de alocação (índice do pod -> índice do nó, -1 se não alocado)
+     */
+    public int[] getAllocation() {
+        return state.getAllocation();
+    }
+
+    /**
+     * Número de nós abertos pela heurística na última execução
+     */
+    public int getSteps() {
+        return steps;
+    }
+}
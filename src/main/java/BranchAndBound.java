@@ -0,0 +1,534 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Branch-and-bound exato, em Java puro, para o modelo de localização capacitado do
+ * CustomMain (x_i abre o nó i, y_ij aloca o pod j em i, CapacidadeNo_i), sem Gurobi
+ * A ramificação é na abertura dos nós: cada subproblema fixa alguns nós abertos ou
+ * fechados. O limite é o da relaxação lagrangiana por classe de tamanho do
+ * DualAscent (igual ao da relaxação linear), com os multiplicadores do subproblema
+ * pai como ponto de partida. As folgas f_i - K_i(v) fixam nós sem ramificar: se
+ * abrir (ou fechar) um nó livre leva o limite além da melhor solução, ele fica
+ * fechado (ou aberto)
+ * Com todos os nós fixados sobra a alocação dos pods nos nós abertos, resolvida de
+ * forma exata por uma busca em profundidade nas quantidades de cada classe em cada
+ * nó (folha). O custo de alocação só depende do nó, então a relaxação linear da
+ * folha tem forma fechada: as menores classes nos nós de menor custo de alocação
+ * As soluções iniciais vêm das heurísticas DROP, ADD e da primal do DualAscent, e
+ * cada subproblema tenta a folha gulosa com os nós que o dual abre
+ * Os subproblemas são tarefas de um ForkJoinPool (roubo de trabalho): cada uma
+ * resolve um dos filhos e deixa o outro na fila, que as threads ociosas roubam
+ */
+class BranchAndBound {
+    private ProblemInstance instance;
+    private int numNodes;
+    private int numPods;
+    private int[] capacities;
+    private double[] openingCosts;
+    private double[] allocationCosts;
+    private int[] sizes;
+    private int[] podsBySizeClass;
+    private int[] sizeClassStarts;
+    private int[] nodesByAllocationCost;
+    private int[] classCounts;
+    private long demanda;
+    private boolean custosInteiros; // custos inteiros: basta o limite passar de custo - 1
+    private int numThreads;
+    private double gapTolerance;
+    private SearchBudget budget;    // null = sem limite
+
+    private final AtomicReference<Incumbent> best = new AtomicReference<>();
+    private final AtomicLong exploredNodes = new AtomicLong();
+    private ThreadLocal<Contexto> contextos;
+    private volatile boolean interrompido;
+    private double rootBound;
+
+    // Iterações do subgradiente em cada subproblema (a raiz faz a execução completa do DualAscent)
+    private static final int SUBPROBLEM_ITERATIONS = 50;
+
+    // Passos da busca da folha entre consultas ao budget
+    private static final int BUDGET_CHECK_PERIOD = 4096;
+
+    public BranchAndBound(ProblemInstance instance, int numThreads) {
+        this.instance = instance;
+        this.numNodes = instance.getNumNodes();
+        this.numPods = instance.getNumPods();
+        this.capacities = instance.getCapacities();
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.sizes = instance.getSizeClasses();
+        this.podsBySizeClass = instance.getPodsBySizeClass();
+        this.sizeClassStarts = instance.getSizeClassStarts();
+        this.nodesByAllocationCost = instance.getNodesByAllocationCost();
+        this.numThreads = Math.max(1, numThreads);
+
+        this.classCounts = new int[sizes.length];
+        for (int c = 0; c < sizes.length; c++) {
+            classCounts[c] = sizeClassStarts[c + 1] - sizeClassStarts[c];
+            demanda += (long) classCounts[c] * sizes[c];
+        }
+        this.custosInteiros = true;
+        for (int i = 0; i < numNodes; i++) {
+            custosInteiros &= openingCosts[i] == Math.rint(openingCosts[i]) && allocationCosts[i] == Math.rint(allocationCosts[i]);
+        }
+    }
+
+    /**
+     * Executa o branch-and-bound. Sem budget, ao terminar a melhor solução é ótima
+     * (a menos de gapTolerance)
+     */
+    public void execute() {
+        best.set(null);
+        exploredNodes.set(0);
+        interrompido = false;
+        contextos = ThreadLocal.withInitial(Contexto::new);
+
+        long capacidadeTotal = 0;
+        for (int i = 0; i < numNodes; i++) {
+            capacidadeTotal += capacities[i];
+        }
+        // Nem com todos os nós abertos os pods cabem: não há solução
+        if (capacidadeTotal < demanda) {
+            rootBound = Double.POSITIVE_INFINITY;
+            return;
+        }
+
+        DualAscent raiz = new DualAscent(instance);
+        raiz.execute();
+        rootBound = raiz.getLowerBound();
+        considerar(raiz.getAllocation());
+
+        DropHeuristic drop = new DropHeuristic(instance);
+        drop.execute();
+        considerar(drop.getAllocation());
+
+        AddHeuristic add = new AddHeuristic(instance);
+        add.execute();
+        considerar(add.getAllocation());
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            pool.invoke(new Subproblema(new byte[numNodes], raiz.getMultipliers()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Subproblema com os nós fixados em fixacao (1 = aberto, -1 = fechado, 0 = livre)
+     */
+    private final class Subproblema extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final byte[] fixacao;
+        private final double[] multiplicadores;
+
+        Subproblema(byte[] fixacao, double[] multiplicadores) {
+            this.fixacao = fixacao;
+            this.multiplicadores = multiplicadores;
+        }
+
+        @Override
+        protected void compute() {
+            if (deveParar()) {
+                interrompido = true;
+                return;
+            }
+            exploredNodes.incrementAndGet();
+            Contexto contexto = contextos.get();
+            if (capacidade(fixacao, false) < demanda) {
+                return;
+            }
+
+            DualAscent relaxacao = contexto.relaxacao;
+            double limite = relaxacao.limitar(fixacao, multiplicadores, SUBPROBLEM_ITERATIONS, limiarPoda());
+            if (podePodar(limite)) {
+                return;
+            }
+
+            // Fixação pelas folgas: com os mesmos multiplicadores, abrir o nó livre i soma
+            // max(0, folga) ao limite e fechá-lo soma max(0, -folga)
+            int livres = 0;
+            int ramo = -1;
+            for (int i = 0; i < numNodes; i++) {
+                if (fixacao[i] != 0) {
+                    continue;
+                }
+                double folga = relaxacao.getSlack(i);
+                if (folga > 0 && podePodar(limite + folga)) {
+                    fixacao[i] = -1;
+                } else if (folga < 0 && podePodar(limite - folga)) {
+                    fixacao[i] = 1;
+                } else {
+                    livres++;
+                    if (ramo < 0 || folga < relaxacao.getSlack(ramo)) {
+                        ramo = i;
+                    }
+                }
+            }
+            if (capacidade(fixacao, false) < demanda) {
+                return;
+            }
+
+            // Folha gulosa com os nós abertos e os livres que o dual abre
+            byte[] heuristica = fixacao.clone();
+            for (int i = 0; i < numNodes; i++) {
+                if (heuristica[i] == 0 && relaxacao.getSlack(i) < 0) {
+                    heuristica[i] = 1;
+                }
+            }
+            if (capacidade(heuristica, true) >= demanda) {
+                contexto.resolverFolha(heuristica, false);
+            }
+
+            if (livres == 0) {
+                contexto.resolverFolha(fixacao, true);
+                return;
+            }
+
+            // Ramifica no livre de menor folga, primeiro no lado que o dual prefere
+            double[] filhos = relaxacao.getMultipliers();
+            byte[] aberto = fixacao.clone();
+            aberto[ramo] = 1;
+            byte[] fechado = fixacao.clone();
+            fechado[ramo] = -1;
+            Subproblema abrir = new Subproblema(aberto, filhos);
+            Subproblema fechar = new Subproblema(fechado, filhos.clone());
+            if (relaxacao.getSlack(ramo) < 0) {
+                invokeAll(abrir, fechar);
+            } else {
+                invokeAll(fechar, abrir);
+            }
+        }
+    }
+
+    // Capacidade dos nós abertos (soAbertos) ou dos não fechados
+    private long capacidade(byte[] fixacao, boolean soAbertos) {
+        long total = 0;
+        for (int i = 0; i < numNodes; i++) {
+            if (fixacao[i] > 0 || (!soAbertos && fixacao[i] == 0)) {
+                total += capacities[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Nenhuma solução de custo maior ou igual ao limite melhora a atual (a menos de
+     * gapTolerance)
+     */
+    private boolean podePodar(double limite) {
+        return limite >= limiarPoda();
+    }
+
+    /**
+     * Menor limite que poda, dada a melhor solução (+infinito se não houver). Com
+     * custos inteiros basta o limite passar de custo - 1
+     */
+    private double limiarPoda() {
+        Incumbent incumbent = best.get();
+        if (incumbent == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double custo = incumbent.cost;
+        double escala = Math.max(1.0, Math.abs(custo));
+        double limiar = custo * (1 - gapTolerance) - 1e-9 * escala;
+        if (custosInteiros) {
+            limiar = Math.min(limiar, custo - 1 + 1e-6 * escala);
+        }
+        return limiar;
+    }
+
+    private boolean deveParar() {
+        if (interrompido) {
+            return true;
+        }
+        if (budget == null) {
+            return false;
+        }
+        Incumbent incumbent = best.get();
+        return budget.isExpired() || (incumbent != null && budget.isTargetReached(incumbent.cost));
+    }
+
+    /**
+     * Estado de cada thread: relaxação e a busca da folha
+     */
+    private final class Contexto {
+        private final DualAscent relaxacao = new DualAscent(instance);
+        private final int[] nos = new int[numNodes];     // nós abertos da folha, por custo de alocação
+        private final int[] restantes = new int[sizes.length];
+        private final int[][] quantidades = new int[numNodes][sizes.length];
+        private final double[] sobra = new double[sizes.length];
+        private int numAbertos;
+        private boolean exato;
+        private double limiteLinear;                      // relaxação linear da última chamada a limiteFolha
+        private long passos;
+
+        /**
+         * Aloca os pods nos nós abertos em fixacao. Com exato, busca em profundidade
+         * as quantidades de cada classe (das menores para as maiores) em cada nó (do
+         * mais barato para o mais caro), cada uma da maior possível para zero; sem
+         * exato, só o caminho das maiores quantidades (guloso)
+         */
+        void resolverFolha(byte[] fixacao, boolean exato) {
+            numAbertos = 0;
+            double custoFixo = 0.0;
+            for (int k = 0; k < numNodes; k++) {
+                int node = nodesByAllocationCost[k];
+                if (fixacao[node] > 0) {
+                    nos[numAbertos++] = node;
+                    custoFixo += openingCosts[node];
+                }
+            }
+            if (numAbertos == 0) {
+                return;
+            }
+            System.arraycopy(classCounts, 0, restantes, 0, sizes.length);
+            for (int k = 0; k < numAbertos; k++) {
+                Arrays.fill(quantidades[k], 0);
+            }
+            this.exato = exato;
+            buscar(0, 0, capacities[nos[0]], custoFixo, numPods);
+        }
+
+        private void buscar(int k, int c, int residual, double custo, int faltam) {
+            if (faltam == 0) {
+                registrar(custo);
+                return;
+            }
+            if (exato && ++passos % BUDGET_CHECK_PERIOD == 0 && deveParar()) {
+                interrompido = true;
+            }
+            if (interrompido) {
+                return;
+            }
+            if (c == sizes.length) {
+                if (k + 1 < numAbertos) {
+                    buscar(k + 1, 0, capacities[nos[k + 1]], custo, faltam);
+                }
+                return;
+            }
+            double custoAlocacao = allocationCosts[nos[k]];
+            int maximo = Math.min(restantes[c], residual / sizes[c]);
+            int minimo = exato ? 0 : maximo;
+            for (int quantidade = maximo; quantidade >= minimo; quantidade--) {
+                restantes[c] -= quantidade;
+                quantidades[k][c] = quantidade;
+                double novoCusto = custo + quantidade * custoAlocacao;
+                int novoResidual = residual - quantidade * sizes[c];
+                // O limite linear da folha é convexo na quantidade, com mínimo no máximo:
+                // podado em uma quantidade, também é nas menores
+                boolean podar = false;
+                boolean pular = false;
+                if (exato) {
+                    pular = podePodar(novoCusto + limiteFolha(k, c + 1, novoResidual, faltam - quantidade));
+                    podar = podePodar(novoCusto + limiteLinear);
+                }
+                if (!pular) {
+                    buscar(k, c + 1, novoResidual, novoCusto, faltam - quantidade);
+                }
+                restantes[c] += quantidade;
+                quantidades[k][c] = 0;
+                if (podar) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Limite do que falta alocar (faltam pods). A relaxação linear põe no residual
+         * do nó k as classes a partir de c e nos nós seguintes o resto, sempre as
+         * menores classes primeiro; ela maximiza ao mesmo tempo o número Q_b de pods em
+         * cada prefixo k..b dos nós. Como o custo se escreve
+         *   c_último · faltam - soma_b (c_b+1 - c_b) · Q_b
+         * e numa solução inteira Q_b é inteiro, o limite usa piso(Q_b). O valor da
+         * relaxação linear (sem o piso) fica em limiteLinear. +infinito se não couber
+         */
+        private double limiteFolha(int k, int c, int residual, int faltam) {
+            for (int classe = 0; classe < sizes.length; classe++) {
+                sobra[classe] = restantes[classe];
+            }
+            double prefixo = 0.0;
+            double espaco = residual;
+            for (int classe = c; classe < sizes.length && espaco > 0; classe++) {
+                double quantidade = Math.min(sobra[classe], espaco / sizes[classe]);
+                prefixo += quantidade;
+                sobra[classe] -= quantidade;
+                espaco -= quantidade * sizes[classe];
+            }
+
+            double linear = prefixo * allocationCosts[nos[k]];
+            double limite = 0.0;
+            int classe = 0;
+            for (int proximo = k + 1; proximo < numAbertos; proximo++) {
+                double degrau = allocationCosts[nos[proximo]] - allocationCosts[nos[proximo - 1]];
+                limite -= degrau * Math.floor(prefixo + 1e-9);
+                espaco = capacities[nos[proximo]];
+                while (classe < sizes.length && espaco > 0) {
+                    double quantidade = Math.min(sobra[classe], espaco / sizes[classe]);
+                    prefixo += quantidade;
+                    linear += quantidade * allocationCosts[nos[proximo]];
+                    sobra[classe] -= quantidade;
+                    espaco -= quantidade * sizes[classe];
+                    if (sobra[classe] <= 1e-9) {
+                        classe++;
+                    }
+                }
+            }
+            for (; classe < sizes.length; classe++) {
+                if (sobra[classe] > 1e-9) {
+                    limiteLinear = Double.POSITIVE_INFINITY;
+                    return Double.POSITIVE_INFINITY;
+                }
+            }
+            limiteLinear = linear;
+            return limite + allocationCosts[nos[numAbertos - 1]] * faltam;
+        }
+
+        private void registrar(double custo) {
+            if (podePodar(custo)) {
+                return;
+            }
+            int[] allocation = new int[numPods];
+            for (int c = 0; c < sizes.length; c++) {
+                int proximo = sizeClassStarts[c];
+                for (int k = 0; k < numAbertos; k++) {
+                    for (int m = 0; m < quantidades[k][c]; m++) {
+                        allocation[podsBySizeClass[proximo++]] = nos[k];
+                    }
+                }
+            }
+            considerar(allocation);
+        }
+    }
+
+    /**
+     * Junta a alocação às soluções conhecidas se alocar todos os pods e for melhor
+     * que a atual (sem bloqueio, via compareAndSet)
+     */
+    private void considerar(int[] allocation) {
+        boolean[] nodeOpened = new boolean[numNodes];
+        double cost = 0.0;
+        for (int node : allocation) {
+            if (node < 0) {
+                return;
+            }
+            cost += allocationCosts[node];
+            nodeOpened[node] = true;
+        }
+        for (int i = 0; i < numNodes; i++) {
+            if (nodeOpened[i]) {
+                cost += openingCosts[i];
+            }
+        }
+
+        Incumbent novo = new Incumbent(cost, nodeOpened, allocation.clone());
+        Incumbent atual = best.get();
+        while (atual == null || cost < atual.cost) {
+            if (best.compareAndSet(atual, novo)) {
+                return;
+            }
+            atual = best.get();
+        }
+    }
+
+    /**
+     * Para a busca por prazo, custo alvo ou cancelamento (a melhor solução encontrada
+     * fica disponível, sem garantia de otimalidade)
+     */
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Gap relativo aceito para podar ((custo - limite) / custo), 0 = ótimo exato
+     */
+    public void setGapTolerance(double gapTolerance) {
+        this.gapTolerance = gapTolerance;
+    }
+
+    /**
+     * Se a busca terminou sem ser interrompida: a melhor solução é ótima (a menos de
+     * gapTolerance)
+     */
+    public boolean isOptimal() {
+        return !interrompido && best.get() != null;
+    }
+
+    /**
+     * Limite inferior provado: o custo da melhor solução se a busca terminou, senão o
+     * limite da raiz
+     */
+    public double getLowerBound() {
+        Incumbent incumbent = best.get();
+        if (incumbent == null) {
+            return rootBound;
+        }
+        if (!isOptimal()) {
+            return Math.min(rootBound, incumbent.cost);
+        }
+        // Os subproblemas podados tinham limite de pelo menos custo · (1 - gapTolerance)
+        return Math.min(incumbent.cost, Math.max(rootBound, incumbent.cost * (1 - gapTolerance)));
+    }
+
+    /**
+     * Gap relativo entre a melhor solução e o limite inferior (+infinito se não houver
+     * solução)
+     */
+    public double getGap() {
+        Incumbent incumbent = best.get();
+        if (incumbent == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (incumbent.cost - getLowerBound()) / incumbent.cost;
+    }
+
+    public double getBestCost() {
+        Incumbent incumbent = best.get();
+        return incumbent == null ? Double.MAX_VALUE : incumbent.cost;
+    }
+
+    /**
+     * Alocação da melhor solução (índice do nó de cada pod), ou null se não houver
+     */
+    public int[] getBestAllocation() {
+        Incumbent incumbent = best.get();
+        return incumbent == null ? null : incumbent.allocation.clone();
+    }
+
+    public int getBestOpenedNodesCount() {
+        Incumbent incumbent = best.get();
+        if (incumbent == null) {
+            return 0;
+        }
+        int count = 0;
+        for (boolean isOpen : incumbent.nodeOpened) {
+            if (isOpen) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Subproblemas explorados na última execução
+     */
+    public long getExploredNodes() {
+        return exploredNodes.get();
+    }
+
+    /**
+     * Melhor solução (imutável, publicada via AtomicReference)
+     */
+    private static final class Incumbent {
+        private final double cost;
+        private final boolean[] nodeOpened;
+        private final int[] allocation;
+
+        Incumbent(double cost, boolean[] nodeOpened, int[] allocation) {
+            this.cost = cost;
+            this.nodeOpened = nodeOpened;
+            this.allocation = allocation;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import java.util.Random;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class BranchAndBoundScheduler {
+    public static void main(String[] args) throws IOException {
+        int[] tamanhosPods = {10, 50, 100, 200, 500, 1000, 5000, 10000};
+        int[] tamanhosNodes = {5, 10, 20, 50, 100, 200};
+        long seed = 100; // Fixed seed for reproducibility
+        int numThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long timeLimitMillis = 60000; // Per instance; past it the best solution is reported without proof
+
+        FileWriter writer = new FileWriter(new File("branch_and_bound.csv"));
+        writer.write("number of pods; number of nodes; solution cost; lower bound; gap; optimal; explored nodes; time (ms) \n");
+
+        for (int numPods : tamanhosPods) {
+            for (int numNodes : tamanhosNodes) {
+                // The only valid configuration when we consider 5 nodes is the one with 10 pods.
+                if (numNodes == 5 && numPods != 10)
+                    continue;
+
+                System.out.println("Total pods: " + numPods + " and Total Nodes: " + numNodes);
+
+                // Create the instance using random data with fixed seed for reproducibility
+                ProblemInstance instance = ProblemInstance.generate(numPods, numNodes, new Random(seed));
+
+                // Exact branch-and-bound (a single run: it stops on proof of optimality)
+                BranchAndBound branchAndBound = new BranchAndBound(instance, numThreads);
+                branchAndBound.setBudget(SearchBudget.ofMillis(timeLimitMillis));
+
+                long startTime = System.currentTimeMillis();
+                branchAndBound.execute();
+                long elapsedTime = System.currentTimeMillis() - startTime;
+
+                double totalCost = branchAndBound.getBestCost();
+                double lowerBound = branchAndBound.getLowerBound();
+                double gap = branchAndBound.getGap();
+
+                // Print results
+                System.out.println("=== Branch-and-Bound Results ===");
+                System.out.println("Used nodes: " + branchAndBound.getBestOpenedNodesCount());
+                System.out.println("Solution cost: " + totalCost + " (lower bound: " + lowerBound + ")");
+                System.out.println("Optimal: " + branchAndBound.isOptimal() + " (explored nodes: "
+                        + branchAndBound.getExploredNodes() + ")");
+                System.out.println("Time taken: " + elapsedTime + " ms");
+                System.out.println("================================\n");
+
+                // Write to CSV
+                writer.write(numPods + "; " + numNodes + "; " + totalCost + "; " + lowerBound + "; " + gap + "; "
+                        + branchAndBound.isOptimal() + "; " + branchAndBound.getExploredNodes() + "; " + elapsedTime + "\n");
+                writer.flush();
+            }
+        }
+
+        writer.close();
+        System.out.println("CSV file written successfully");
+    }
+}
@@ -1,9 +1,7 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.TreeSet;
 import java.util.Random;
 import java.io.File;
 import java.io.FileWriter;
@@ -11,82 +9,6 @@ import java.io.IOException;
 
 import com.gurobi.gurobi.*;
 
-class Pod {
-    private int resourceUsage;
-    private int index;
-
-    public Pod(int resourceUsage, int index) {
-        this.resourceUsage = resourceUsage;
-        this.index = index;
-    }
-
-    public int getResourceUsage() {
-        return resourceUsage;
-    }
-
-    public int getIndex() {
-        return index;
-    }
-}
-
-class Node implements Comparable<Node> {
-    private int capacity;
-    private List<Pod> pods;
-    private int index;
-    private double openingCost;
-    private double allocationCost;
-
-    public Node(int capacity, int index, double openingCost, double allocationCost) {
-        this.capacity = capacity;
-        this.pods = new ArrayList<>();
-        this.index = index;
-        this.openingCost = openingCost;
-        this.allocationCost = allocationCost;
-    }
-
-    public int getCapacity() {
-        return capacity;
-    }
-
-    public double getOpeningCost() {
-        return openingCost;
-    }
-
-    public double getAllocationCost() {
-        return allocationCost;
-    }
-
-    public boolean canAllocatePod(Pod pod) {
-        int totalPodsSize = pods.stream().mapToInt(Pod::getResourceUsage).sum();
-        return totalPodsSize + pod.getResourceUsage() <= capacity;
-    }
-
-    public void allocatePod(Pod pod) {
-        pods.add(pod);
-    }
-
-    public List<Pod> getPods() {
-        return pods;
-    }
-
-    public int getIndex() {
-        return index;
-    }
-  
-    public void clear() {
-        pods.clear();
-    }
-
-    public int compareTo(Node nodeTemp) {
-        if (this.index < nodeTemp.index)
-            return -1;
-        else if (this.index > nodeTemp.index)
-            return 1;
-        else
-            return 0;
-    }
-}
-
 class KubeScheduler {
     List<Node> nodes;
     Random random;
@@ -159,43 +81,18 @@ public class CustomMain {
 
                 System.out.println("Total pods: " + numPods + " and Total Nodes: " + numNodes);
 
-                /* Create the data structures and generate random data. */
-                List<Node> nodes = new ArrayList<>(numNodes);
-                List<Pod> pods = new ArrayList<>(numPods);
-                HashMap<Pod, Node> allocation = new HashMap<>();
-                TreeSet<Node> openedNodes = new TreeSet<>();
-
-                int capacityMin = numPods / numNodes + 1; // Specify the minimum node capacity
-                int capacityMax = numPods * 2; // Specify the maximum node capacity
-
-                int resourceUsageMin = 1; // Specify the minimum pod size
-                int resourceUsageMax = 10; // Specify the maximum pod size
-
-                int openingCostInit = 1; // Specify the minimum cost per unit opening node 
-                int openingCostEnd = 4 * numNodes; // Specify the maximum cost per unit opening node 
-
-                int allocatingCostInit = 1; // Specify the minimum cost per unit allocation cost 
-                int allocatingCostEnd = 4 * numNodes; // Specify the maximum cost per unit allocation cost 
+                /* Create the instance using random data with fixed seed. */
+                ProblemInstance instance = ProblemInstance.generate(numPods, numNodes, random);
+                List<Node> nodes = instance.getNodes();
+                List<Pod> pods = instance.getPods();
+                int[] allocation = new int[numPods]; // node index per pod, -1 when unassigned
+                BitSet openedNodes = new BitSet(numNodes);
 
                 KubeScheduler kubeScheduler = new KubeScheduler(FIXED_SEED);
 
-                /* Create nodes using random data with fixed seed. */
-                for (int i = 0; i < numNodes; i++) {
-                    int capacity = capacityMin + random.nextInt(capacityMax - capacityMin + 1);
-                    int openingCost = openingCostInit + random.nextInt(openingCostEnd - openingCostInit + 1);
-                    int allocationCost = allocatingCostInit + random.nextInt(allocatingCostEnd - allocatingCostInit + 1);
-                    
-                    Node node = new Node(capacity, i, openingCost, allocationCost);
-                    nodes.add(node);    
+                for (Node node : nodes) {
                     kubeScheduler.addNode(node);
                 }
-          
-                /* Create pods using random data with fixed seed. */
-                for (int j = 0; j < numPods; j++) {
-                    int resourceUsage = resourceUsageMin + random.nextInt(resourceUsageMax - resourceUsageMin + 1);
-                    Pod pod = new Pod(resourceUsage, j);
-                    pods.add(pod);
-                }
 
           		/* Perform computational experiments regarding the Kubescheduler algorithm. */
 
@@ -203,7 +100,7 @@ public class CustomMain {
                 
                 for (int i = 0; i < numberExecutions; i++) {
 
-                    allocation.clear();
+                    Arrays.fill(allocation, -1);
                     openedNodes.clear();
                   
                     for(Node node : nodes)
@@ -214,8 +111,8 @@ public class CustomMain {
     
                         if (allocatedNode != null) {
 
-                            allocation.put(pod, allocatedNode);
-                            openedNodes.add(allocatedNode);
+                            allocation[pod.getIndex()] = allocatedNode.getIndex();
+                            openedNodes.set(allocatedNode.getIndex());
     
                             //double cost = allocatedNode.getAllocationCost();
     
@@ -242,19 +139,14 @@ public class CustomMain {
                 double totalCost = 0.0;
           
           		/* Sums the opening cost for all opened nodes. */
-                Iterator<Node> iterator = openedNodes.iterator();
-                
-                while (iterator.hasNext()) {
-                    Node tempNode = iterator.next();
-                    totalCost += tempNode.getOpeningCost();
+                for (int tempNode = openedNodes.nextSetBit(0); tempNode >= 0; tempNode = openedNodes.nextSetBit(tempNode + 1)) {
+                    totalCost += instance.getOpeningCost(tempNode);
                 }
           
           		/* Sums the allocation cost for each allocation performed involving a pod and a node. */
-                for (Pod tempPod : pods) {
-                    Node tempNode = allocation.get(tempPod);
-
-                    if (tempNode != null)
-                        totalCost += tempNode.getAllocationCost();
+                for (int tempNode : allocation) {
+                    if (tempNode >= 0)
+                        totalCost += instance.getAllocationCost(tempNode);
                 }
 
                 System.out.println("Total Cost: " + totalCost);  
@@ -279,39 +171,25 @@ public class CustomMain {
                 for(int i = 0; i < numNodes; i++)
                 		gamma[i] = 0.0;
                   
-  							/* Builds the alpha array containing nodes' opening costs. */
-                double alpha[] = new double[numNodes];
+  							/* The alpha array containing nodes' opening costs. */
+                double alpha[] = instance.getOpeningCosts();
                   
-                for(int i = 0; i < numNodes; i++)
-                {
-                    Node tempNode = nodes.get(i);
-                    alpha[i] = tempNode.getOpeningCost();
-                }
-                  
-                /* Builds the beta array containing pods' allocation costs. */
-                double beta[] = new double[numNodes];
-                  
-                for(int i = 0; i < numNodes; i++)
-                {
-                  	Node tempNode = nodes.get(i);
-                  	beta[i] = tempNode.getAllocationCost();
-                }
+                /* The beta array containing pods' allocation costs. */
+                double beta[] = instance.getAllocationCosts();
 
                 /* Builds the capacity array containing nodes' capacities. */
                 double U[] = new double[numNodes];
                   
                 for(int i = 0; i < numNodes; i++)
                 {
-                		Node tempNode = nodes.get(i);
-                		U[i] = tempNode.getCapacity();
+                		U[i] = instance.getCapacity(i);
                 }
 
                 /* Builds the usage array containing pods' resource usages. */
                 double u[] = new double[numPods];
                 for(int j = 0; j < numPods; j++)
                 {
-                        Pod tempPod = pods.get(j);
-                		u[j] = tempPod.getResourceUsage();
+                		u[j] = instance.getResourceUsage(j);
                 }
 
                 /* Creates the model. */
@@ -0,0 +1,261 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Heurística DROP de localização de facilidades para o escalonamento de pods
+ * Começa com todos os nós abertos, cada pod no nó de menor custo de alocação em que
+ * couber, e a cada passo fecha o nó de maior economia: custo de abertura mais a
+ * alocação dos seus pods nele, menos a alocação deles nos outros nós abertos. Para
+ * quando nenhum fechamento traz economia positiva
+ * A redistribuição dos pods de um nó é um empacotamento agregado por classe de
+ * tamanho: as classes, da maior para a menor, ocupam os outros nós abertos em ordem
+ * crescente de custo de alocação (O(classes · N) por nó)
+ * Nada é recalculado do zero a cada passo:
+ * - a soma dos residuais dos nós abertos é mantida; fechar i só é possível se ela,
+ *   sem a capacidade de i, ainda comportar o uso de i. Como ela só diminui, um nó
+ *   recusado por ela nunca mais volta a ser candidato
+ * - o empacotamento de cada nó guarda até que posição da ordem por custo de alocação
+ *   ele olhou (fronteira). Um fechamento só muda o nó fechado e os que receberam
+ *   pods, então só é reavaliado quem recebeu pods ou tem na fronteira algum deles
+ * As economias ficam em uma fila de prioridade (MoveGainCache)
+ */
+class DropHeuristic {
+    private int numNodes;
+    private int[] capacities;
+    private double[] openingCosts;
+    private double[] allocationCosts;
+    private int[] sizes;
+    private int[] podsBySizeClass;
+    private int[] sizeClassStarts;
+    private int[] nodesByAllocationCost;
+    private int[] posicao;       // posição de cada nó em nodesByAllocationCost
+    private SolutionState state;
+    private NodeSizeClasses sizeClasses;
+    private MoveGainCache savings; // -economia de fechar cada nó (o menor valor é a maior economia)
+    private boolean[] nodeOpened;
+    private boolean[] descartado; // fechamento impossível para sempre (residual total insuficiente)
+    private boolean[] recebeu;    // nós que receberam pods no último fechamento
+    private int[] fronteira;      // última posição da ordem por custo vista no empacotamento de cada nó
+    private int[] residuais;      // residual de cada nó durante um empacotamento
+    private long residualAberto;  // soma dos residuais dos nós abertos
+    private int steps;
+
+    public DropHeuristic(ProblemInstance instance) {
+        this.numNodes = instance.getNumNodes();
+        this.capacities = instance.getCapacities();
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.sizes = instance.getSizeClasses();
+        this.podsBySizeClass = instance.getPodsBySizeClass();
+        this.sizeClassStarts = instance.getSizeClassStarts();
+        this.nodesByAllocationCost = instance.getNodesByAllocationCost();
+        this.posicao = new int[numNodes];
+        for (int k = 0; k < numNodes; k++) {
+            posicao[nodesByAllocationCost[k]] = k;
+        }
+        this.state = new SolutionState(instance);
+        this.sizeClasses = new NodeSizeClasses(instance);
+        this.savings = new MoveGainCache(numNodes);
+        this.nodeOpened = new boolean[numNodes];
+        this.descartado = new boolean[numNodes];
+        this.recebeu = new boolean[numNodes];
+        this.fronteira = new int[numNodes];
+        this.residuais = new int[numNodes];
+    }
+
+    /**
+     * Executa a heurística DROP
+     */
+    public void execute() {
+        state.clear();
+        sizeClasses.clear();
+        Arrays.fill(nodeOpened, true);
+        Arrays.fill(descartado, false);
+        steps = 0;
+
+        // Se os menores primeiro deixarem pods de fora, os maiores vão primeiro (first-fit decreasing)
+        if (alocarInicial(true) > 0) {
+            state.clear();
+            sizeClasses.clear();
+            alocarInicial(false);
+        }
+        residualAberto = 0;
+        for (int n = 0; n < numNodes; n++) {
+            residualAberto += state.getResidualCapacity(n);
+        }
+
+        savings.clear();
+        for (int i = 0; i < numNodes; i++) {
+            atualizarEconomia(i);
+        }
+
+        while (!savings.isEmpty()) {
+            int fechado = savings.peek();
+            savings.remove(fechado);
+            int menorPosicao = fechar(fechado);
+            steps++;
+
+            for (int k = 0; k < numNodes; k++) {
+                if (nodeOpened[k] && !descartado[k] && (recebeu[k] || menorPosicao <= fronteira[k])) {
+                    atualizarEconomia(k);
+                }
+            }
+        }
+    }
+
+    /**
+     * Com todos os nós abertos, cada classe ocupa os nós em ordem crescente de custo
+     * de alocação. Com menoresPrimeiro, as classes vão da menor para a maior, para que
+     * os nós baratos recebam o maior número de pods. Retorna quantos pods ficaram sem nó
+     */
+    private int alocarInicial(boolean menoresPrimeiro) {
+        int naoAlocados = 0;
+        for (int ordem = 0; ordem < sizes.length; ordem++) {
+            int c = menoresPrimeiro ? ordem : sizes.length - 1 - ordem;
+            int k = 0;
+            for (int p = sizeClassStarts[c]; p < sizeClassStarts[c + 1]; p++) {
+                int pod = podsBySizeClass[p];
+                while (k < numNodes && !state.canAllocatePod(pod, nodesByAllocationCost[k])) {
+                    k++;
+                }
+                // Nenhum nó comporta os pods restantes desta classe
+                if (k == numNodes) {
+                    naoAlocados += sizeClassStarts[c + 1] - p;
+                    break;
+                }
+                state.allocatePod(pod, nodesByAllocationCost[k]);
+                sizeClasses.addPod(nodesByAllocationCost[k], pod);
+            }
+        }
+        return naoAlocados;
+    }
+
+    private void atualizarEconomia(int i) {
+        // Sem i, os outros nós abertos não comportam o uso de i: R - residual(i) < uso(i)
+        if (residualAberto < capacities[i]) {
+            descartado[i] = true;
+            savings.remove(i);
+            return;
+        }
+
+        double economia = -avaliarFechamento(i, false);
+        if (economia > 0) {
+            savings.set(i, -economia);
+        } else {
+            savings.remove(i);
+        }
+    }
+
+    /**
+     * Variação de custo de fechar i redistribuindo os seus pods (+infinito se não
+     * couberem), guardando a fronteira do empacotamento. Com aplicar, os pods são
+     * movidos e os nós que os receberam ficam marcados em recebeu
+     */
+    private double avaliarFechamento(int i, boolean aplicar) {
+        for (int n = 0; n < numNodes; n++) {
+            residuais[n] = state.getResidualCapacity(n);
+        }
+        double deltaCost = -openingCosts[i];
+        fronteira[i] = -1;
+
+        for (int c = sizes.length - 1; c >= 0; c--) {
+            int restantes = sizeClasses.getCount(i, c);
+            if (restantes == 0) {
+                continue;
+            }
+            deltaCost -= restantes * allocationCosts[i];
+
+            int k = 0;
+            for (; k < numNodes && restantes > 0; k++) {
+                int target = nodesByAllocationCost[k];
+                if (target == i || !nodeOpened[target] || residuais[target] < sizes[c]) {
+                    continue;
+                }
+                int quantidade = Math.min(restantes, residuais[target] / sizes[c]);
+                residuais[target] -= quantidade * sizes[c];
+                deltaCost += quantidade * allocationCosts[target];
+                restantes -= quantidade;
+
+                for (int m = 0; aplicar && m < quantidade; m++) {
+                    int pod = sizeClasses.getFirstPod(i, c);
+                    sizeClasses.removePod(i, pod);
+                    state.allocatePod(pod, target);
+                    sizeClasses.addPod(target, pod);
+                    recebeu[target] = true;
+                }
+            }
+            fronteira[i] = Math.max(fronteira[i], k - 1);
+            if (restantes > 0) {
+                fronteira[i] = numNodes;
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        return deltaCost;
+    }
+
+    /**
+     * Fecha o nó, movendo os seus pods, e retorna a menor posição, na ordem por custo
+     * de alocação, entre ele e os nós que receberam pods
+     */
+    private int fechar(int i) {
+        Arrays.fill(recebeu, false);
+        avaliarFechamento(i, true);
+        nodeOpened[i] = false;
+        residualAberto -= capacities[i];
+
+        int menorPosicao = posicao[i];
+        for (int n = 0; n < numNodes; n++) {
+            if (recebeu[n]) {
+                menorPosicao = Math.min(menorPosicao, posicao[n]);
+            }
+        }
+        return menorPosicao;
+    }
+
+    /**
+     * Calcula o custo total da solução (pods não alocados não entram no custo)
+     */
+    public double calculateTotalCost() {
+        double totalCost = 0.0;
+        for (int i = 0; i < numNodes; i++) {
+            if (!state.isEmpty(i)) {
+                totalCost += openingCosts[i] + allocationCosts[i] * state.getPodCount(i);
+            }
+        }
+        return totalCost;
+    }
+
+    /**
+     * Retorna o número de nós abertos na solução
+     */
+    public int getOpenedNodesCount() {
+        return getOpenedNodes().cardinality();
+    }
+
+    /**
+     * Retorna os nós abertos (com pelo menos um pod) na solução
+     */
+    public BitSet getOpenedNodes() {
+        BitSet openedNodes = new BitSet(numNodes);
+        for (int i = 0; i < numNodes; i++) {
+            if (!state.isEmpty(i)) {
+                openedNodes.set(i);
+            }
+        }
+        return openedNodes;
+    }
+
+    /**
+     * Retorna o vetor de alocação (índice do pod -> índice do nó, -1 se não alocado)
+     */
+    public int[] getAllocation() {
+        return state.getAllocation();
+    }
+
+    /**
+     * Número de nós fechados pela heurística na última execução
+     */
+    public int getSteps() {
+        return steps;
+    }
+}
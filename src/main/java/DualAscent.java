@@ -0,0 +1,601 @@
+import java.util.Arrays;
+
+/**
+ * Limite inferior por ascensão dual (no estilo do DUALOC de Erlenkotter) para o
+ * modelo de localização capacitado do CustomMain, com uma solução primal construída
+ * a partir da informação dual
+ * Relaxando as restrições de atendimento (cada pod em exatamente um nó) com
+ * multiplicadores v_j, o custo de qualquer solução viável é pelo menos
+ *   LB(v) = soma_j v_j + soma_i min(0, f_i - K_i(v))
+ * onde K_i(v) é a mochila fracionária do nó i: lucro (v_j - c_i) por pod, peso igual
+ * ao tamanho do pod e capacidade U_i. O custo de alocação depende só do nó, então
+ * pods da mesma classe de tamanho são simétricos e basta um multiplicador por
+ * classe: K_i é calculado sobre as classes (O(classes · log classes)), e o
+ * tamanho da instância só entra na contagem de pods por classe
+ * A ascensão mantém todas as folgas f_i - K_i(v) não negativas (o limite é então
+ * soma_j v_j) e sobe os multiplicadores em rodadas, cada classe até o próximo custo
+ * de alocação distinto. Quando o próximo nível violaria alguma folga, a classe sobe
+ * até o máximo viável (bisseção) e fica congelada. Em seguida o ajuste dual deixa
+ * folgas ficarem negativas e sobe LB(v) por subida coordenada, uma classe por vez.
+ * A subida coordenada para em quinas de LB (não diferenciável); o subgradiente, com
+ * passo de Polyak até o custo da primal, continua a partir dali
+ * A solução primal parte dos nós que o dual abre (folga não positiva), completa a
+ * capacidade com os nós de menor custo efetivo por pod e melhora o conjunto de nós
+ * abertos abrindo ou fechando um nó por vez, com os ganhos em uma fila de prioridade
+ * reavaliada de forma preguiçosa; cada classe, da menor para a maior, vai para os
+ * nós abertos de menor custo de alocação
+ */
+class DualAscent implements LowerBound {
+    private int numNodes;
+    private int[] capacities;
+    private double[] openingCosts;
+    private double[] allocationCosts;
+    private int[] sizes;
+    private int[] podsBySizeClass;
+    private int[] sizeClassStarts;
+    private int[] nodesByAllocationCost;
+    private int[] classCounts;   // número de pods de cada classe
+    private double[] multipliers; // v de cada classe
+    private int[] ordemRazao;     // classes em ordem de lucro por unidade (mochila)
+    private double[] pesos;       // pods (fracionários) de cada classe na última mochila
+    private double[] folgas;
+    private byte[] fixacao;       // null = todos livres; 1 = aberto, -1 = fechado, 0 = livre
+    private boolean[] nodeOpened;
+    private int[] residuais;
+    private MoveGainCache inversoes; // -ganho de abrir ou fechar cada nó (o menor valor é o maior ganho)
+    private int[] versao;            // passo em que o ganho guardado de cada nó foi calculado
+    private long demanda;            // soma dos tamanhos dos pods
+    private double maiorCustoUsado;  // maior custo de alocação entre os nós usados no último empacotamento
+    private boolean menoresCouberam; // o último empacotamento coube com as menores classes primeiro
+    private int[] allocation;     // índice do nó de cada pod (-1 = não alocado)
+    private double lowerBound;
+    private double primalCost;
+
+    // Iterações da bisseção do multiplicador de uma classe
+    private static final int BISECTION_STEPS = 30;
+
+    // Máximo de rodadas do ajuste dual e ganho relativo mínimo para continuar
+    private static final int ADJUSTMENT_ROUNDS = 20;
+    private static final double ADJUSTMENT_TOLERANCE = 1e-6;
+
+    // Subgradiente: iterações na execução completa, passo inicial (fração do passo de
+    // Polyak) e iterações sem melhora antes de reduzir o passo à metade
+    private static final int SUBGRADIENT_ITERATIONS = 1000;
+    private static final double SUBGRADIENT_STEP = 2.0;
+    private static final int SUBGRADIENT_PATIENCE = 20;
+
+    public DualAscent(ProblemInstance instance) {
+        this.numNodes = instance.getNumNodes();
+        this.capacities = instance.getCapacities();
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.sizes = instance.getSizeClasses();
+        this.podsBySizeClass = instance.getPodsBySizeClass();
+        this.sizeClassStarts = instance.getSizeClassStarts();
+        this.nodesByAllocationCost = instance.getNodesByAllocationCost();
+        this.classCounts = new int[sizes.length];
+        for (int c = 0; c < sizes.length; c++) {
+            classCounts[c] = sizeClassStarts[c + 1] - sizeClassStarts[c];
+            demanda += (long) classCounts[c] * sizes[c];
+        }
+        this.multipliers = new double[sizes.length];
+        this.ordemRazao = new int[sizes.length];
+        this.pesos = new double[sizes.length];
+        this.folgas = new double[numNodes];
+        this.nodeOpened = new boolean[numNodes];
+        this.residuais = new int[numNodes];
+        this.inversoes = new MoveGainCache(numNodes);
+        this.versao = new int[numNodes];
+        this.allocation = new int[instance.getNumPods()];
+    }
+
+    /**
+     * Executa a ascensão dual e constrói a solução primal. Se nem todos os nós abertos
+     * comportam a demanda, a instância é inviável: o limite é +infinito e a primal
+     * aloca o que couber
+     */
+    public void execute() {
+        fixacao = null;
+        long capacidadeTotal = 0;
+        for (int i = 0; i < numNodes; i++) {
+            capacidadeTotal += capacities[i];
+        }
+        // LB(v) cresce sem limite: o subgradiente não tem para onde convergir
+        if (capacidadeTotal < demanda) {
+            lowerBound = Double.POSITIVE_INFINITY;
+            Arrays.fill(folgas, Double.NEGATIVE_INFINITY); // a primal abre todos os nós
+            construirPrimal();
+            return;
+        }
+        ascender();
+        ajustar();
+        construirPrimal();
+
+        // A subida coordenada para em quinas de LB: o subgradiente, mirando o custo da
+        // primal, continua de onde ela parou. A primal é refeita com as novas folgas
+        int[] primalAnterior = allocation.clone();
+        double custoAnterior = primalCost;
+        subgradiente(SUBGRADIENT_ITERATIONS, primalCost);
+        lowerBound = calcularLimite();
+        construirPrimal();
+        if (custoAnterior < primalCost) {
+            System.arraycopy(primalAnterior, 0, allocation, 0, allocation.length);
+            Arrays.fill(nodeOpened, false);
+            for (int node : allocation) {
+                if (node >= 0) {
+                    nodeOpened[node] = true;
+                }
+            }
+            primalCost = custoAnterior;
+        }
+    }
+
+    private void ascender() {
+        // Custos de alocação distintos, em ordem crescente: os níveis da ascensão
+        double[] niveis = new double[numNodes];
+        int numNiveis = 0;
+        for (int k = 0; k < numNodes; k++) {
+            double custo = allocationCosts[nodesByAllocationCost[k]];
+            if (numNiveis == 0 || custo != niveis[numNiveis - 1]) {
+                niveis[numNiveis++] = custo;
+            }
+        }
+        double maiorAbertura = 0.0;
+        for (double f : openingCosts) {
+            maiorAbertura = Math.max(maiorAbertura, f);
+        }
+
+        // Com v_c no menor custo de alocação nenhuma mochila tem lucro: todas as folgas valem f_i
+        Arrays.fill(multipliers, niveis[0]);
+        boolean[] congelada = new boolean[sizes.length];
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            for (int c = sizes.length - 1; c >= 0; c--) {
+                if (congelada[c] || classCounts[c] == 0) {
+                    continue;
+                }
+                double atual = multipliers[c];
+                int proximoNivel = Arrays.binarySearch(niveis, 0, numNiveis, atual);
+                proximoNivel = proximoNivel >= 0 ? proximoNivel + 1 : -proximoNivel - 1;
+                double proximo = proximoNivel < numNiveis ? niveis[proximoNivel] : atual + maiorAbertura;
+
+                multipliers[c] = proximo;
+                if (folgasNaoNegativas()) {
+                    mudou = true;
+                    continue;
+                }
+
+                // O próximo nível viola alguma folga: sobe até o máximo viável
+                double viavel = atual;
+                double inviavel = proximo;
+                for (int passo = 0; passo < BISECTION_STEPS; passo++) {
+                    multipliers[c] = (viavel + inviavel) / 2;
+                    if (folgasNaoNegativas()) {
+                        viavel = multipliers[c];
+                    } else {
+                        inviavel = multipliers[c];
+                    }
+                }
+                multipliers[c] = viavel;
+                congelada[c] = true;
+                mudou |= viavel > atual;
+            }
+        }
+    }
+
+    /**
+     * Ajuste dual: a ascensão para quando alguma folga zera, mas LB(v) ainda pode
+     * crescer deixando folgas negativas (nós que o dual "abre"). LB é côncavo e linear
+     * por partes em cada multiplicador, com derivada
+     *   n_c - soma dos pods da classe c nas mochilas dos nós de folga negativa
+     * então cada classe vai, por bisseção no sinal da derivada, ao máximo de LB nessa
+     * coordenada. As classes são ajustadas em rodadas até o limite parar de crescer
+     */
+    private void ajustar() {
+        double maiorCusto = 0.0;
+        for (int i = 0; i < numNodes; i++) {
+            maiorCusto = Math.max(maiorCusto, openingCosts[i] + allocationCosts[i]);
+        }
+
+        double limite = calcularLimite();
+        for (int rodada = 0; rodada < ADJUSTMENT_ROUNDS; rodada++) {
+            double anterior = limite;
+            for (int c = sizes.length - 1; c >= 0; c--) {
+                if (classCounts[c] == 0) {
+                    continue;
+                }
+                double original = multipliers[c];
+                double a = original - maiorCusto;
+                double b = original + maiorCusto;
+                for (int passo = 0; passo < BISECTION_STEPS; passo++) {
+                    multipliers[c] = (a + b) / 2;
+                    // Em patamares a derivada é zero a menos de arredondamento: vai à borda direita
+                    if (derivada(c) > -ADJUSTMENT_TOLERANCE * classCounts[c]) {
+                        a = multipliers[c];
+                    } else {
+                        b = multipliers[c];
+                    }
+                }
+                multipliers[c] = a;
+                double novo = calcularLimite();
+                if (novo >= limite) {
+                    limite = novo;
+                } else {
+                    multipliers[c] = original;
+                }
+            }
+            if (limite - anterior <= ADJUSTMENT_TOLERANCE * Math.max(1.0, Math.abs(limite))) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Limite de um subproblema do branch-and-bound, com nós fixados abertos (1),
+     * fechados (-1) ou livres (0): os abertos pagam f_i - K_i(v) inteiro e os fechados
+     * saem do limite. Só o subgradiente é feito, partindo dos multiplicadores
+     * informados (os do subproblema pai), com no máximo iteracoes iterações e parando
+     * se o limite chegar a alvo. Os multiplicadores finais ficam em getMultipliers e
+     * as folgas em getSlack
+     */
+    public double limitar(byte[] fixacao, double[] multiplicadoresIniciais, int iteracoes, double alvo) {
+        this.fixacao = fixacao;
+        System.arraycopy(multiplicadoresIniciais, 0, multipliers, 0, sizes.length);
+        subgradiente(iteracoes, alvo);
+        return calcularLimite();
+    }
+
+    /**
+     * Otimização por subgradiente de LB(v): o subgradiente da classe c é
+     *   n_c - soma dos pods da classe c nas mochilas dos nós que o limite abre
+     * e o passo é o de Polyak até alvo (um custo de solução conhecido), reduzido à
+     * metade quando o limite passa SUBGRADIENT_PATIENCE iterações sem melhorar.
+     * Termina com os melhores multiplicadores encontrados
+     */
+    private void subgradiente(int iteracoes, double alvo) {
+        double[] direcao = new double[sizes.length];
+        double[] melhores = multipliers.clone();
+        double melhor = Double.NEGATIVE_INFINITY;
+        double passo = SUBGRADIENT_STEP;
+        int semMelhora = 0;
+
+        for (int iteracao = 0; iteracao < iteracoes; iteracao++) {
+            double limite = 0.0;
+            for (int c = 0; c < sizes.length; c++) {
+                limite += classCounts[c] * multipliers[c];
+                direcao[c] = classCounts[c];
+            }
+            for (int i = 0; i < numNodes; i++) {
+                int estado = fixacao == null ? 0 : fixacao[i];
+                if (estado < 0) {
+                    continue;
+                }
+                double folga = openingCosts[i] - mochila(i);
+                if (estado > 0 || folga < 0) {
+                    limite += folga;
+                    for (int c = 0; c < sizes.length; c++) {
+                        direcao[c] -= pesos[c];
+                    }
+                }
+            }
+
+            if (limite > melhor) {
+                melhor = limite;
+                System.arraycopy(multipliers, 0, melhores, 0, sizes.length);
+                semMelhora = 0;
+            } else if (++semMelhora >= SUBGRADIENT_PATIENCE) {
+                passo /= 2;
+                semMelhora = 0;
+            }
+
+            double norma = 0.0;
+            for (int c = 0; c < sizes.length; c++) {
+                norma += direcao[c] * direcao[c];
+            }
+            // Subgradiente nulo: v é ótimo; limite no alvo: não há o que ganhar
+            if (norma < ADJUSTMENT_TOLERANCE || limite >= alvo) {
+                break;
+            }
+            double t = passo * (alvo - limite) / norma;
+            for (int c = 0; c < sizes.length; c++) {
+                multipliers[c] += t * direcao[c];
+            }
+        }
+        System.arraycopy(melhores, 0, multipliers, 0, sizes.length);
+    }
+
+    // Derivada de LB no multiplicador da classe c
+    private double derivada(int c) {
+        double derivada = classCounts[c];
+        for (int i = 0; i < numNodes; i++) {
+            int estado = fixacao == null ? 0 : fixacao[i];
+            if (estado >= 0 && (openingCosts[i] - mochila(i) < 0 || estado > 0)) {
+                derivada -= pesos[c];
+            }
+        }
+        return derivada;
+    }
+
+    private boolean folgasNaoNegativas() {
+        for (int i = 0; i < numNodes; i++) {
+            if (openingCosts[i] - mochila(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mochila fracionária do nó i: as classes com lucro positivo, em ordem de lucro
+     * por unidade de capacidade, ocupam a capacidade do nó. Guarda em pesos quantos
+     * pods (fracionários) de cada classe entraram
+     */
+    private double mochila(int i) {
+        Arrays.fill(pesos, 0.0);
+        int n = 0;
+        for (int c = 0; c < sizes.length; c++) {
+            if (classCounts[c] > 0 && multipliers[c] > allocationCosts[i]) {
+                // Inserção ordenada por lucro por unidade (poucas classes)
+                double razao = (multipliers[c] - allocationCosts[i]) / sizes[c];
+                int k = n++;
+                while (k > 0 && (multipliers[ordemRazao[k - 1]] - allocationCosts[i]) / sizes[ordemRazao[k - 1]] < razao) {
+                    ordemRazao[k] = ordemRazao[k - 1];
+                    k--;
+                }
+                ordemRazao[k] = c;
+            }
+        }
+
+        double lucro = 0.0;
+        long residual = capacities[i];
+        for (int k = 0; k < n && residual > 0; k++) {
+            int c = ordemRazao[k];
+            long unidades = Math.min((long) classCounts[c] * sizes[c], residual);
+            lucro += unidades * (multipliers[c] - allocationCosts[i]) / sizes[c];
+            residual -= unidades;
+            pesos[c] = (double) unidades / sizes[c];
+        }
+        return lucro;
+    }
+
+    /**
+     * LB(v) completo, válido para quaisquer multiplicadores (as folgas negativas, que a
+     * bisseção pode deixar por arredondamento, são descontadas). Nós fixados abertos
+     * entram com a folga inteira e os fechados ficam com folga +infinito
+     */
+    private double calcularLimite() {
+        double limite = 0.0;
+        for (int c = 0; c < sizes.length; c++) {
+            limite += classCounts[c] * multipliers[c];
+        }
+        for (int i = 0; i < numNodes; i++) {
+            int estado = fixacao == null ? 0 : fixacao[i];
+            if (estado < 0) {
+                folgas[i] = Double.POSITIVE_INFINITY;
+                continue;
+            }
+            folgas[i] = openingCosts[i] - mochila(i);
+            limite += estado > 0 ? folgas[i] : Math.min(0.0, folgas[i]);
+        }
+        return limite;
+    }
+
+    /**
+     * Abre os nós que o dual abre (folga não positiva) e, enquanto os pods não
+     * couberem, os nós fechados em ordem de custo efetivo por pod (abertura diluída na
+     * capacidade mais alocação). Depois abre ou fecha, enquanto o custo diminuir, o nó
+     * cuja troca de estado mais reduz o custo do empacotamento
+     * Os ganhos das trocas ficam em uma fila de prioridade (MoveGainCache): uma troca
+     * muda o empacotamento inteiro, então os ganhos guardados ficam desatualizados e
+     * só o topo é reavaliado a cada passo (avaliação preguiçosa, como no AddHeuristic),
+     * em vez de reempacotar para todos os nós. Quando a fila esvazia, uma nova
+     * varredura confirma que nenhuma troca melhora
+     */
+    private void construirPrimal() {
+        int numPods = allocation.length;
+        double tamanhoMedio = numPods == 0 ? 1.0 : (double) demanda / numPods;
+
+        long capacidadeAberta = 0;
+        for (int i = 0; i < numNodes; i++) {
+            nodeOpened[i] = folgas[i] <= ADJUSTMENT_TOLERANCE * Math.max(1.0, openingCosts[i]);
+            if (nodeOpened[i]) {
+                capacidadeAberta += capacities[i];
+            }
+        }
+        double custo = capacidadeAberta >= demanda ? empacotar(false) : Double.POSITIVE_INFINITY;
+        if (custo == Double.POSITIVE_INFINITY) {
+            Integer[] fechados = new Integer[numNodes];
+            for (int i = 0; i < numNodes; i++) {
+                fechados[i] = i;
+            }
+            Arrays.sort(fechados, (a, b) -> Double.compare(
+                    openingCosts[a] * tamanhoMedio / capacities[a] + allocationCosts[a],
+                    openingCosts[b] * tamanhoMedio / capacities[b] + allocationCosts[b]));
+            // Só vale empacotar quando a capacidade aberta cobre a demanda. Se todos os
+            // nós abrirem e os pods ainda não couberem, a instância é inviável
+            for (int k = 0; k < numNodes && custo == Double.POSITIVE_INFINITY; k++) {
+                int i = fechados[k];
+                if (!nodeOpened[i]) {
+                    nodeOpened[i] = true;
+                    capacidadeAberta += capacities[i];
+                    if (capacidadeAberta >= demanda) {
+                        custo = empacotar(false);
+                    }
+                }
+            }
+        }
+
+        int passo = 0;
+        boolean melhorou = custo < Double.POSITIVE_INFINITY;
+        while (melhorou) {
+            melhorou = false;
+            inversoes.clear();
+            double limiteAbertura = limiteAbertura();
+            for (int i = 0; i < numNodes; i++) {
+                avaliarInversao(i, custo, capacidadeAberta, limiteAbertura, passo);
+            }
+            while (!inversoes.isEmpty()) {
+                int i = inversoes.peek();
+
+                // Ganho desatualizado: recalcula e volta ao topo da fila
+                if (versao[i] != passo) {
+                    avaliarInversao(i, custo, capacidadeAberta, limiteAbertura, passo);
+                    continue;
+                }
+
+                custo += inversoes.getPriority(i);
+                inversoes.remove(i);
+                nodeOpened[i] = !nodeOpened[i];
+                capacidadeAberta += nodeOpened[i] ? capacities[i] : -capacities[i];
+                limiteAbertura = limiteAbertura();
+                passo++;
+                melhorou = true;
+            }
+        }
+        empacotar(true);
+
+        primalCost = 0.0;
+        int[] podCounts = new int[numNodes];
+        for (int node : allocation) {
+            if (node >= 0) {
+                podCounts[node]++;
+                primalCost += allocationCosts[node];
+            }
+        }
+        for (int i = 0; i < numNodes; i++) {
+            nodeOpened[i] = podCounts[i] > 0;
+            if (nodeOpened[i]) {
+                primalCost += openingCosts[i];
+            }
+        }
+    }
+
+    /**
+     * Custo de alocação acima do qual abrir um nó não muda o empacotamento atual: se as
+     * menores classes primeiro couberam, os pods nunca chegam a um nó mais caro que o
+     * mais caro dos usados (+infinito se foi preciso o first-fit decreasing)
+     */
+    private double limiteAbertura() {
+        empacotar(false);
+        return menoresCouberam ? maiorCustoUsado : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Guarda na fila o ganho de trocar o estado do nó i, se for positivo. Fechar um nó
+     * sem o qual a capacidade aberta não cobre a demanda, ou abrir um mais caro que
+     * limiteAbertura, nem é empacotado
+     */
+    private void avaliarInversao(int i, double custo, long capacidadeAberta, double limiteAbertura, int passo) {
+        versao[i] = passo;
+        boolean semEfeito = nodeOpened[i]
+                ? capacidadeAberta - capacities[i] < demanda
+                : allocationCosts[i] > limiteAbertura;
+        if (semEfeito) {
+            inversoes.remove(i);
+            return;
+        }
+        nodeOpened[i] = !nodeOpened[i];
+        double novo = empacotar(false);
+        nodeOpened[i] = !nodeOpened[i];
+        if (novo < custo) {
+            inversoes.set(i, novo - custo);
+        } else {
+            inversoes.remove(i);
+        }
+    }
+
+    /**
+     * Empacota as classes, da menor para a maior, nos nós abertos em ordem crescente
+     * de custo de alocação, para que os nós baratos recebam o maior número de pods. Se
+     * algum pod não couber, as classes vão da maior para a menor (first-fit
+     * decreasing). Retorna o custo do empacotamento (abertura dos nós usados mais
+     * alocação), +infinito se algum pod não couber; com alocar, preenche a alocação
+     * (os pods que não couberem ficam com -1)
+     */
+    private double empacotar(boolean alocar) {
+        double custo = empacotar(alocar, true);
+        menoresCouberam = custo < Double.POSITIVE_INFINITY;
+        return menoresCouberam ? custo : empacotar(alocar, false);
+    }
+
+    private double empacotar(boolean alocar, boolean menoresPrimeiro) {
+        for (int n = 0; n < numNodes; n++) {
+            residuais[n] = capacities[n];
+        }
+        if (alocar) {
+            Arrays.fill(allocation, -1);
+        }
+
+        double custo = 0.0;
+        boolean couberam = true;
+        maiorCustoUsado = Double.NEGATIVE_INFINITY;
+        for (int ordem = 0; ordem < sizes.length; ordem++) {
+            int c = menoresPrimeiro ? ordem : sizes.length - 1 - ordem;
+            int proximo = sizeClassStarts[c];
+            for (int k = 0; k < numNodes && proximo < sizeClassStarts[c + 1]; k++) {
+                int node = nodesByAllocationCost[k];
+                if (!nodeOpened[node] || residuais[node] < sizes[c]) {
+                    continue;
+                }
+                int quantidade = Math.min(sizeClassStarts[c + 1] - proximo, residuais[node] / sizes[c]);
+                if (residuais[node] == capacities[node]) {
+                    custo += openingCosts[node];
+                    maiorCustoUsado = Math.max(maiorCustoUsado, allocationCosts[node]);
+                }
+                residuais[node] -= quantidade * sizes[c];
+                custo += quantidade * allocationCosts[node];
+                for (int m = 0; alocar && m < quantidade; m++) {
+                    allocation[podsBySizeClass[proximo + m]] = node;
+                }
+                proximo += quantidade;
+            }
+            couberam &= proximo == sizeClassStarts[c + 1];
+        }
+        return couberam ? custo : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Limite inferior do custo de qualquer solução que aloque todos os pods
+     */
+    @Override
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Custo da solução primal construída a partir das folgas
+     */
+    public double getPrimalCost() {
+        return primalCost;
+    }
+
+    public int getOpenedNodesCount() {
+        int count = 0;
+        for (boolean isOpen : nodeOpened) {
+            if (isOpen) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Retorna a alocação da solução primal (índice do pod -> índice do nó, -1 se não alocado)
+     */
+    public int[] getAllocation() {
+        return allocation;
+    }
+
+    /**
+     * Folga f_i - K_i(v) do nó nos multiplicadores finais (+infinito se fixado fechado)
+     */
+    public double getSlack(int node) {
+        return folgas[node];
+    }
+
+    /**
+     * Multiplicador final de cada classe de tamanho
+     */
+    public double[] getMultipliers() {
+        return multipliers.clone();
+    }
+}
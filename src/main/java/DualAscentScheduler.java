@@ -0,0 +1,81 @@
+import java.util.Random;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class DualAscentScheduler {
+    public static void main(String[] args) throws IOException {
+        int[] tamanhosPods = {10, 50, 100, 200, 500, 1000, 5000, 10000};
+        int[] tamanhosNodes = {5, 10, 20, 50, 100, 200};
+        int numberExecutions = 10;
+        long seed = 100; // Fixed seed for reproducibility
+
+        FileWriter writer = new FileWriter(new File("dual_ascent.csv"));
+        writer.write("number of pods; number of nodes; lower bound; dual primal cost; dual primal gap; time (ms); "
+                + "greedy cost; greedy gap; add cost; add gap; drop cost; drop gap \n");
+
+        for (int numPods : tamanhosPods) {
+            for (int numNodes : tamanhosNodes) {
+                // The only valid configuration when we consider 5 nodes is the one with 10 pods.
+                if (numNodes == 5 && numPods != 10)
+                    continue;
+
+                System.out.println("Total pods: " + numPods + " and Total Nodes: " + numNodes);
+
+                // Create the instance using random data with fixed seed for reproducibility
+                ProblemInstance instance = ProblemInstance.generate(numPods, numNodes, new Random(seed));
+
+                // Dual ascent: lower bound and primal solution from the dual information
+                DualAscent dual = new DualAscent(instance);
+
+                long startTime = System.currentTimeMillis();
+                for (int i = 0; i < numberExecutions; i++) {
+                    dual.execute();
+                }
+                long elapsedTime = (System.currentTimeMillis() - startTime) / numberExecutions;
+
+                double lowerBound = dual.getLowerBound();
+                double primalCost = dual.getPrimalCost();
+
+                // Heuristics on the same instance, each one reported with its optimality gap
+                GreedyHeuristic greedy = new GreedyHeuristic(instance);
+                greedy.execute();
+                double greedyCost = greedy.calculateTotalCost();
+
+                AddHeuristic add = new AddHeuristic(instance);
+                add.execute();
+                double addCost = add.calculateTotalCost();
+
+                DropHeuristic drop = new DropHeuristic(instance);
+                drop.execute();
+                double dropCost = drop.calculateTotalCost();
+
+                // Print results
+                System.out.println("=== Dual Ascent Results ===");
+                System.out.println("Lower bound: " + lowerBound);
+                System.out.println("Used nodes: " + dual.getOpenedNodesCount());
+                System.out.println("Dual primal cost: " + primalCost + " (gap: " + formatGap(dual.getGap(primalCost)) + ")");
+                System.out.println("Greedy cost: " + greedyCost + " (gap: " + formatGap(dual.getGap(greedyCost)) + ")");
+                System.out.println("ADD cost: " + addCost + " (gap: " + formatGap(dual.getGap(addCost)) + ")");
+                System.out.println("DROP cost: " + dropCost + " (gap: " + formatGap(dual.getGap(dropCost)) + ")");
+                System.out.println("Time taken: " + elapsedTime + " ms");
+                System.out.println("===========================\n");
+
+                // Write to CSV
+                writer.write(numPods + "; " + numNodes + "; " + lowerBound + "; " + primalCost + "; "
+                        + dual.getGap(primalCost) + "; " + elapsedTime + "; "
+                        + greedyCost + "; " + dual.getGap(greedyCost) + "; "
+                        + addCost + "; " + dual.getGap(addCost) + "; "
+                        + dropCost + "; " + dual.getGap(dropCost) + "\n");
+                writer.flush();
+            }
+        }
+
+        writer.close();
+        System.out.println("CSV file written successfully");
+    }
+
+    private static String formatGap(double gap) {
+        return String.format("%.2f%%", 100 * gap);
+    }
+}
@@ -1,191 +1,145 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Comparator;
-
-class Pod {
-    private int resourceUsage;
-    private int index;
-    private Node allocatedNode;
-
-    public Pod(int resourceUsage, int index) {
-        this.resourceUsage = resourceUsage;
-        this.index = index;
-        this.allocatedNode = null;
-    }
-
-    public int getResourceUsage() {
-        return resourceUsage;
-    }
-
-    public int getIndex() {
-        return index;
-    }
-    
-    public Node getAllocatedNode() {
-        return allocatedNode;
-    }
-    
-    public void setAllocatedNode(Node node) {
-        this.allocatedNode = node;
-    }
-    
-    public boolean isAllocated() {
-        return allocatedNode != null;
-    }
-}
-
-class Node implements Comparable<Node> {
-    private int capacity;
-    private List<Pod> pods;
-    private int index;
-    private double openingCost;
-    private double allocationCost;
-    private int currentUsage;
-
-    public Node(int capacity, int index, double openingCost, double allocationCost) {
-        this.capacity = capacity;
-        this.pods = new ArrayList<>();
-        this.index = index;
-        this.openingCost = openingCost;
-        this.allocationCost = allocationCost;
-        this.currentUsage = 0;
-    }
-
-    public int getCapacity() {
-        return capacity;
-    }
-    
-    public int getCurrentUsage() {
-        return currentUsage;
-    }
-
-    public double getOpeningCost() {
-        return openingCost;
-    }
-
-    public double getAllocationCost() {
-        return allocationCost;
-    }
-
-    public boolean canAllocatePod(Pod pod) {
-        return currentUsage + pod.getResourceUsage() <= capacity;
-    }
-
-    public void allocatePod(Pod pod) {
-        pods.add(pod);
-        currentUsage += pod.getResourceUsage();
-        // Se o pod já estiver alocado em outro nó, remove-o de lá primeiro
-        if (pod.getAllocatedNode() != null && pod.getAllocatedNode() != this) {
-            pod.getAllocatedNode().removePod(pod);
-        }
-        pod.setAllocatedNode(this);
-    }
-    
-    public void removePod(Pod pod) {
-        if (pods.remove(pod)) {
-            currentUsage -= pod.getResourceUsage();
-            if (pod.getAllocatedNode() == this) {
-                pod.setAllocatedNode(null);
-            }
-        }
-    }
-
-    public List<Pod> getPods() {
-        return pods;
-    }
-
-    public int getIndex() {
-        return index;
-    }
-  
-    public void clear() {
-        for (Pod pod : new ArrayList<>(pods)) { // Cria uma cópia para evitar ConcurrentModificationException
-            pod.setAllocatedNode(null);
-        }
-        pods.clear();
-        currentUsage = 0;
-    }
-
-    public int compareTo(Node nodeTemp) {
-        return Integer.compare(this.index, nodeTemp.index);
-    }
-}
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 class GreedyRandomized {
-    private List<Node> nodes;
-    private List<Pod> pods;
+    private int numNodes;
+    private int numPods;
+    private SolutionState state;
+    private double[] openingCosts;
+    private double[] allocationCosts;
     private boolean[] nodeOpened;
-    private Random random;
+    private SplittableRandom random;
     private double alpha;
+    private double[] custos; // custo de alocação do pod atual em cada nó (infinito = não cabe)
+    private int[] rcl;       // buffer da lista restrita de candidatos
 
-    public GreedyRandomized(List<Node> nodes, List<Pod> pods, double alpha, Random random) {
-        this.nodes = nodes;
-        this.pods = pods;
-        this.nodeOpened = new boolean[nodes.size()];
+    public GreedyRandomized(ProblemInstance instance, double alpha, SplittableRandom random) {
+        this.numNodes = instance.getNumNodes();
+        this.numPods = instance.getNumPods();
+        this.state = new SolutionState(instance);
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.nodeOpened = new boolean[numNodes];
         this.alpha = alpha;
         this.random = random;
+        this.custos = new double[numNodes];
+        this.rcl = new int[numNodes];
     }
 
-    private double calcularCustoAlocacao(Node node, Pod pod) {
+    private double calcularCustoAlocacao(int i) {
         double cost = 0.0;
         
-        if (!nodeOpened[node.getIndex()]) {
-            cost += node.getOpeningCost();
+        if (!nodeOpened[i]) {
+            cost += openingCosts[i];
         }
         
-        cost += node.getAllocationCost();
+        cost += allocationCosts[i];
         
         return cost;
     }
     
     public void execute() {
         // Reset state
-        for (Node node : nodes) {
-            node.clear();
-        }
+        state.clear();
         for (int i = 0; i < nodeOpened.length; i++) {
             nodeOpened[i] = false;
         }
         
-        for (Pod pod : pods) {
-            List<NodeCost> candidatos = new ArrayList<>();
+        for (int pod = 0; pod < numPods; pod++) {
+            // Uma passada: custo de cada nó viável, mínimo e máximo
+            double minCost = Double.POSITIVE_INFINITY;
+            double maxCost = Double.NEGATIVE_INFINITY;
             
-            for (Node node : nodes) {
-                if (node.canAllocatePod(pod)) {
-                    double cost = calcularCustoAlocacao(node, pod);
-                    candidatos.add(new NodeCost(node, cost));
+            for (int node = 0; node < numNodes; node++) {
+                if (state.canAllocatePod(pod, node)) {
+                    double cost = calcularCustoAlocacao(node);
+                    custos[node] = cost;
+                    minCost = Math.min(minCost, cost);
+                    maxCost = Math.max(maxCost, cost);
+                } else {
+                    custos[node] = Double.POSITIVE_INFINITY;
                 }
             }
             
-            if (candidatos.isEmpty()) {
+            if (minCost == Double.POSITIVE_INFINITY) {
                 continue;
             }
             
-            candidatos.sort(Comparator.comparingDouble(NodeCost::getCost));
-            
-            double minCost = candidatos.get(0).getCost();
-            double maxCost = candidatos.get(candidatos.size() - 1).getCost();
             double threshold = minCost + alpha * (maxCost - minCost);
             
-            List<Node> rcl = new ArrayList<>();
-            for (NodeCost nc : candidatos) {
-                if (nc.getCost() <= threshold) {
-                    rcl.add(nc.getNode());
+            int tamanhoRcl = 0;
+            for (int node = 0; node < numNodes; node++) {
+                if (custos[node] <= threshold) {
+                    rcl[tamanhoRcl++] = node;
                 }
             }
             
-            if (!rcl.isEmpty()) {
-                int randomIndex = random.nextInt(rcl.size());
-                Node selectedNode = rcl.get(randomIndex);
-                
-                selectedNode.allocatePod(pod);
-                nodeOpened[selectedNode.getIndex()] = true;
+            // O sorteado é o k-ésimo da RCL na ordem (custo, índice), o mesmo que a
+            // lista ordenada daria, obtido por seleção em O(|RCL|) sem ordenar
+            int randomIndex = random.nextInt(tamanhoRcl);
+            int selectedNode = selecionar(tamanhoRcl, randomIndex);
+            
+            state.allocatePod(pod, selectedNode);
+            nodeOpened[selectedNode] = true;
+        }
+    }
+    
+    /**
+     * Quickselect sobre rcl[0, n): retorna o k-ésimo nó na ordem (custo, índice)
+     */
+    private int selecionar(int n, int k) {
+        int lo = 0;
+        int hi = n - 1;
+        while (lo < hi) {
+            int pivot = rcl[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (vemAntes(rcl[i], pivot)) {
+                    i++;
+                }
+                while (vemAntes(pivot, rcl[j])) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = rcl[i];
+                    rcl[i] = rcl[j];
+                    rcl[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return rcl[k];
             }
         }
+        return rcl[k];
+    }
+    
+    private boolean vemAntes(int a, int b) {
+        if (custos[a] != custos[b]) {
+            return custos[a] < custos[b];
+        }
+        return a < b;
     }
     
     public double calculateTotalCost() {
@@ -193,11 +147,8 @@ class GreedyRandomized {
         
         for (int i = 0; i < nodeOpened.length; i++) {
             if (nodeOpened[i]) {
-                totalCost += nodes.get(i).getOpeningCost();
-                
-                for (Pod pod : nodes.get(i).getPods()) {
-                    totalCost += nodes.get(i).getAllocationCost();
-                }
+                totalCost += openingCosts[i];
+                totalCost += allocationCosts[i] * state.getPodCount(i);
             }
         }
         
@@ -216,122 +167,605 @@ class GreedyRandomized {
         return nodeOpened;
     }
     
-    private class NodeCost {
-        private Node node;
-        private double cost;
-        
-        public NodeCost(Node node, double cost) {
-            this.node = node;
-            this.cost = cost;
-        }
-        
-        public Node getNode() {
-            return node;
-        }
-        
-        public double getCost() {
-            return cost;
-        }
+    public SolutionState getState() {
+        return state;
     }
 }
 
 class LocalSearch {
-    private List<Node> nodes;
-    private List<Pod> pods;
+    private int numNodes;
+    private SolutionState state;
+    private double[] openingCosts;
+    private double[] allocationCosts;
     private boolean[] nodeOpened;
+    private int[] podsBySizeClass;
+    private NodeSizeClasses sizeClasses;
+    private MoveGainCache gainCache;
+    private SearchBudget budget; // null = sem limite
+    private boolean converged;
+    private boolean swapNeighborhood;
+    private boolean closeNeighborhood;
+    private int[] capacities;
+    private int[] nodesByAllocationCost;
+    private int[] residuais;     // residual de cada nó durante a redistribuição de um fechamento
+    private int[] sizes;        // tamanho de cada classe (crescente)
+    private int[] espacoTroca;  // por nó u: maior espaço que uma troca com u libera no destino
+    private int[] classeDestino; // classe do pod que sai do destino nessa troca
+    private int[] classeTroca;   // classe do pod de u que entra no destino
     
-    public LocalSearch(List<Node> nodes, List<Pod> pods, boolean[] initialNodeOpened) {
-        this.nodes = nodes;
-        this.pods = pods;
-        this.nodeOpened = new boolean[nodes.size()];
+    // A busca local altera o estado recebido (o da fase construtiva)
+    public LocalSearch(ProblemInstance instance, SolutionState state, boolean[] initialNodeOpened) {
+        this.numNodes = instance.getNumNodes();
+        this.state = state;
+        this.podsBySizeClass = instance.getPodsBySizeClass();
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.nodeOpened = new boolean[numNodes];
+        this.sizeClasses = new NodeSizeClasses(instance);
+        this.gainCache = new MoveGainCache(numNodes);
+        this.sizes = instance.getSizeClasses();
+        this.capacities = instance.getCapacities();
+        this.nodesByAllocationCost = instance.getNodesByAllocationCost();
         
         System.arraycopy(initialNodeOpened, 0, this.nodeOpened, 0, initialNodeOpened.length);
     }
     
-    private boolean temCapacidadeSuficiente(Node node, Pod pod, Node currentNode) {
-        if (node.equals(currentNode)) {
-            return true;
+    // Os nós abertos são os que têm pods no estado recebido
+    public LocalSearch(ProblemInstance instance, SolutionState state) {
+        this(instance, state, new boolean[instance.getNumNodes()]);
+        for (int i = 0; i < numNodes; i++) {
+            nodeOpened[i] = !state.isEmpty(i);
         }
-        
-        int usedCapacity = node.getCurrentUsage();
-        
-        return (usedCapacity + pod.getResourceUsage() <= node.getCapacity());
     }
     
-    private double calcularVariacaoCusto(Pod pod, Node currentNode, Node newNode) {
+    // A variação de custo depende só do par de nós, não do pod movido
+    private double calcularVariacaoCusto(int current, int target) {
         double deltaCost = 0.0;
         
         // Remover custo da alocação atual
-        deltaCost -= currentNode.getAllocationCost();
+        deltaCost -= allocationCosts[current];
         
         // Adicionar custo da nova alocação
-        deltaCost += newNode.getAllocationCost();
+        deltaCost += allocationCosts[target];
         
         // Se o nó atual ficará vazio, remover seu custo de abertura
-        boolean currentNodeWillBeEmpty = currentNode.getPods().size() == 1;
+        boolean currentNodeWillBeEmpty = state.getPodCount(current) == 1;
         if (currentNodeWillBeEmpty) {
-            deltaCost -= currentNode.getOpeningCost();
+            deltaCost -= openingCosts[current];
         }
         
         // Se o novo nó não está aberto, adicionar seu custo de abertura
-        if (!nodeOpened[newNode.getIndex()]) {
-            deltaCost += newNode.getOpeningCost();
+        if (!nodeOpened[target]) {
+            deltaCost += openingCosts[target];
         }
         
         return deltaCost;
     }
     
-    public void execute() {
-        boolean melhorou = true;
+    /**
+     * Avalia mover um pod de current para target e, se for uma melhoria melhor que a
+     * guardada para current, atualiza o cache
+     */
+    private void avaliarMovimento(int current, int target) {
+        double deltaCost = calcularVariacaoCusto(current, target);
+        if (deltaCost >= 0 || (gainCache.contains(current) && deltaCost > gainCache.getDelta(current))) {
+            return;
+        }
         
-        while (melhorou) {
-            melhorou = false;
-            double melhorDeltaCusto = 0;
-            Pod melhorPod = null;
-            Node melhorNoDestino = null;
-            
-            for (Pod pod : pods) {
-                Node currentNode = pod.getAllocatedNode();
+        // Pod de menor índice da origem que cabe no destino
+        int pod = sizeClasses.findFirstPodFitting(current, state.getResidualCapacity(target));
+        if (pod >= 0 && gainCache.isBetter(current, deltaCost, pod, target)) {
+            gainCache.set(current, deltaCost, pod, target);
+        }
+    }
+    
+    /**
+     * Recalcula o melhor movimento a partir de um nó de origem (O(N · classes))
+     */
+    private void avaliarOrigem(int current) {
+        double melhorDeltaCusto = 0;
+        int melhorPod = -1;
+        int melhorNoDestino = -1;
+        
+        if (!state.isEmpty(current)) {
+            for (int target = 0; target < numNodes; target++) {
+                if (target == current) {
+                    continue;
+                }
                 
-                if (currentNode == null) {
+                double deltaCost = calcularVariacaoCusto(current, target);
+                if (deltaCost >= 0 || deltaCost > melhorDeltaCusto) {
                     continue;
                 }
                 
-                for (Node newNode : nodes) {
-                    if (newNode.equals(currentNode)) {
-                        continue;
-                    }
-                    
-                    if (temCapacidadeSuficiente(newNode, pod, currentNode)) {
-                        double deltaCost = calcularVariacaoCusto(pod, currentNode, newNode);
-                        
-                        if (deltaCost < melhorDeltaCusto) {
-                            melhorDeltaCusto = deltaCost;
-                            melhorPod = pod;
-                            melhorNoDestino = newNode;
-                        }
-                    }
+                int pod = sizeClasses.findFirstPodFitting(current, state.getResidualCapacity(target));
+                if (pod >= 0 && (deltaCost < melhorDeltaCusto || pod < melhorPod)) {
+                    melhorDeltaCusto = deltaCost;
+                    melhorPod = pod;
+                    melhorNoDestino = target;
                 }
             }
+        }
+        
+        if (melhorPod >= 0) {
+            gainCache.set(current, melhorDeltaCusto, melhorPod, melhorNoDestino);
+        } else {
+            gainCache.remove(current);
+        }
+    }
+    
+    /**
+     * Um movimento de a para b só altera esses dois nós: as origens a e b são
+     * recalculadas; para as demais basta reavaliar os destinos a e b. Se o melhor
+     * movimento guardado era para a ou b e piorou, a origem é recalculada inteira
+     */
+    private void atualizarCache(int a, int b) {
+        avaliarOrigem(a);
+        avaliarOrigem(b);
+        
+        for (int current = 0; current < numNodes; current++) {
+            if (current == a || current == b || state.isEmpty(current)) {
+                continue;
+            }
             
-            if (melhorDeltaCusto < 0 && melhorPod != null && melhorNoDestino != null) {
-                melhorou = true;
-                
-                Node noAtual = melhorPod.getAllocatedNode();
-                
-                // Remove o pod do nó atual
-                noAtual.removePod(melhorPod);
-                
-                // Verifica se o nó atual ficou vazio
-                if (noAtual.getPods().isEmpty()) {
-                    nodeOpened[noAtual.getIndex()] = false;
+            int target = gainCache.contains(current) ? gainCache.getTarget(current) : -1;
+            if (target != a && target != b) {
+                avaliarMovimento(current, a);
+                avaliarMovimento(current, b);
+                continue;
+            }
+            
+            // O movimento guardado continua o melhor se não piorou
+            double deltaCost = calcularVariacaoCusto(current, target);
+            int pod = deltaCost < 0 ? sizeClasses.findFirstPodFitting(current, state.getResidualCapacity(target)) : -1;
+            if (pod < 0 || MoveGainCache.isBetter(gainCache.getDelta(current), gainCache.getPod(current), target, deltaCost, pod, target)) {
+                avaliarOrigem(current);
+            } else {
+                gainCache.set(current, deltaCost, pod, target);
+                avaliarMovimento(current, target == a ? b : a);
+            }
+        }
+    }
+    
+    private void aplicarMovimento(int podIndex, int target) {
+        sizeClasses.removePod(state.getNode(podIndex), podIndex);
+        moverPod(podIndex, target);
+        sizeClasses.addPod(target, podIndex);
+    }
+    
+    private void moverPod(int podIndex, int target) {
+        int noAtual = state.getNode(podIndex);
+        
+        // Remove o pod do nó atual
+        state.removePod(podIndex);
+        
+        // Verifica se o nó atual ficou vazio
+        if (state.isEmpty(noAtual)) {
+            nodeOpened[noAtual] = false;
+        }
+        
+        // Adiciona o pod ao novo nó
+        state.allocatePod(podIndex, target);
+        nodeOpened[target] = true;
+    }
+    
+    /**
+     * Calcula o maior espaço que a troca de um pod de t por um pod menor de u libera
+     * em t sem exceder a capacidade de u, e o par de classes que o obtém. Trocas entre
+     * pods da mesma classe não mudam nada e são ignoradas; dentro de uma classe os
+     * pods são equivalentes, então bastam os pares de classes (O(classes²))
+     */
+    private void calcularEspacoTroca(int t, int u) {
+        int residualU = state.getResidualCapacity(u);
+        espacoTroca[u] = 0;
+        for (int cp = sizes.length - 1; cp > 0 && sizes[cp] - sizes[0] > espacoTroca[u]; cp--) {
+            if (sizeClasses.getCount(t, cp) == 0) {
+                continue;
+            }
+            // A diferença diminui com cq: a primeira classe viável de u é a melhor para cp
+            for (int cq = 0; cq < cp && sizes[cp] - sizes[cq] > espacoTroca[u]; cq++) {
+                if (sizes[cp] - sizes[cq] <= residualU && sizeClasses.getCount(u, cq) > 0) {
+                    espacoTroca[u] = sizes[cp] - sizes[cq];
+                    classeDestino[u] = cp;
+                    classeTroca[u] = cq;
+                    break;
                 }
+            }
+        }
+    }
+    
+    /**
+     * Vizinhança de troca, usada quando nenhum movimento simples melhora a solução.
+     * Em um ótimo local, os movimentos de variação negativa de s para t estão
+     * bloqueados por falta de espaço em t. Trocar um pod de t por um pod menor de
+     * outro nó u abre esse espaço, e o movimento de s para t passa a caber. A variação
+     * do movimento composto é só a do movimento, em O(1)
+     * Para cada destino t o espaço liberável é calculado uma vez por u, guardando os
+     * dois melhores u para poder excluir u = s; cada origem s é então testada em O(1)
+     * pelo seu menor pod. Aplica o melhor movimento composto e retorna a sua variação
+     * de custo (0 se não houver)
+     */
+    private double aplicarTrocaComMovimento() {
+        if (espacoTroca == null) {
+            espacoTroca = new int[numNodes];
+            classeDestino = new int[numNodes];
+            classeTroca = new int[numNodes];
+        }
+        double melhorDelta = 0;
+        int melhorOrigem = -1;
+        int melhorDestino = -1;
+        int melhorTroca = -1;
+        
+        for (int t = 0; t < numNodes; t++) {
+            if (budget != null && budget.isExpired()) {
+                return 0;
+            }
+            if (state.isEmpty(t)) {
+                continue;
+            }
+            
+            // Só vale calcular as trocas se alguma origem melhoraria indo para t
+            boolean temOrigem = false;
+            for (int s = 0; s < numNodes && !temOrigem; s++) {
+                temOrigem = s != t && !state.isEmpty(s) && calcularVariacaoCusto(s, t) < melhorDelta;
+            }
+            if (!temOrigem) {
+                continue;
+            }
+            
+            int u1 = -1;
+            int u2 = -1;
+            for (int u = 0; u < numNodes; u++) {
+                if (u == t || state.isEmpty(u)) {
+                    continue;
+                }
+                calcularEspacoTroca(t, u);
+                if (u1 < 0 || espacoTroca[u] > espacoTroca[u1]) {
+                    u2 = u1;
+                    u1 = u;
+                } else if (u2 < 0 || espacoTroca[u] > espacoTroca[u2]) {
+                    u2 = u;
+                }
+            }
+            if (u1 < 0 || espacoTroca[u1] == 0) {
+                continue;
+            }
+            
+            int residualT = state.getResidualCapacity(t);
+            for (int s = 0; s < numNodes; s++) {
+                int u = u1 != s ? u1 : u2;
+                if (s == t || u < 0 || state.isEmpty(s)) {
+                    continue;
+                }
+                // Troca entre nós abertos não muda o custo (alocação por nó, nenhum nó abre ou fecha): só libera espaço
+                double deltaCost = calcularVariacaoCusto(s, t);
+                if (deltaCost < melhorDelta && sizes[menorClasse(s)] <= residualT + espacoTroca[u]) {
+                    melhorDelta = deltaCost;
+                    melhorOrigem = s;
+                    melhorDestino = t;
+                    melhorTroca = u;
+                }
+            }
+        }
+        
+        if (melhorOrigem < 0) {
+            return 0;
+        }
+        
+        int t = melhorDestino;
+        int u = melhorTroca;
+        calcularEspacoTroca(t, u);
+        int podDestino = sizeClasses.getFirstPod(t, classeDestino[u]);
+        int podTroca = sizeClasses.getFirstPod(u, classeTroca[u]);
+        int pod = sizeClasses.getFirstPod(melhorOrigem, menorClasse(melhorOrigem));
+        
+        aplicarMovimento(podDestino, u);
+        aplicarMovimento(podTroca, t);
+        atualizarCache(t, u);
+        aplicarMovimento(pod, t);
+        atualizarCache(melhorOrigem, t);
+        return melhorDelta;
+    }
+    
+    /**
+     * Fechamento de nó: redistribui todos os pods de i pelos outros nós abertos e
+     * economiza o custo de abertura de i em um único passo, mesmo quando nenhum dos
+     * movimentos individuais melhora a solução
+     * A viabilidade é testada por empacotamento agregado por classe de tamanho: as
+     * classes de i, da maior para a menor, ocupam os nós abertos em ordem crescente de
+     * custo de alocação, quantos pods da classe couberem em cada um (O(classes · N)).
+     * Um empacotamento encontrado é sempre viável; o teste pode recusar algum caso
+     * viável que só um empacotamento exato aceitaria
+     * Retorna a variação de custo, ou +infinito se os pods não couberem. Com aplicar,
+     * os pods são movidos para os nós do empacotamento
+     */
+    private double avaliarFechamento(int i, boolean aplicar) {
+        for (int n = 0; n < numNodes; n++) {
+            residuais[n] = state.getResidualCapacity(n);
+        }
+        
+        double deltaCost = -openingCosts[i];
+        for (int c = sizes.length - 1; c >= 0; c--) {
+            int restantes = sizeClasses.getCount(i, c);
+            if (restantes == 0) {
+                continue;
+            }
+            deltaCost -= restantes * allocationCosts[i];
+            
+            for (int k = 0; k < numNodes && restantes > 0; k++) {
+                int target = nodesByAllocationCost[k];
+                if (target == i || !nodeOpened[target] || residuais[target] < sizes[c]) {
+                    continue;
+                }
+                int quantidade = Math.min(restantes, residuais[target] / sizes[c]);
+                residuais[target] -= quantidade * sizes[c];
+                deltaCost += quantidade * allocationCosts[target];
+                restantes -= quantidade;
                 
-                // Adiciona o pod ao novo nó
-                melhorNoDestino.allocatePod(melhorPod);
-                nodeOpened[melhorNoDestino.getIndex()] = true;
+                for (int m = 0; aplicar && m < quantidade; m++) {
+                    aplicarMovimento(sizeClasses.getFirstPod(i, c), target);
+                }
+            }
+            if (restantes > 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        return deltaCost;
+    }
+    
+    /**
+     * Aplica o fechamento de nó de maior economia e retorna a sua variação de custo
+     * (0 se nenhum fechamento melhorar). Um nó cujo uso excede a soma dos residuais dos
+     * outros nós abertos é recusado antes do empacotamento, assim como um nó cuja
+     * economia máxima (abertura mais alocação nele, sem o custo dos destinos) não
+     * supera o melhor fechamento já encontrado
+     */
+    private double aplicarFechamentoDeNo() {
+        if (residuais == null) {
+            residuais = new int[numNodes];
+        }
+        int residualAberto = 0;
+        for (int n = 0; n < numNodes; n++) {
+            if (nodeOpened[n]) {
+                residualAberto += state.getResidualCapacity(n);
+            }
+        }
+        
+        double melhorDelta = 0;
+        int melhorNo = -1;
+        for (int i = 0; i < numNodes; i++) {
+            if (budget != null && budget.isExpired()) {
+                return 0;
+            }
+            if (!nodeOpened[i] || state.isEmpty(i)) {
+                continue;
+            }
+            int uso = capacities[i] - state.getResidualCapacity(i);
+            if (uso > residualAberto - state.getResidualCapacity(i)) {
+                continue;
+            }
+            if (-openingCosts[i] - state.getPodCount(i) * allocationCosts[i] >= melhorDelta) {
+                continue;
+            }
+            
+            double deltaCost = avaliarFechamento(i, false);
+            if (deltaCost < melhorDelta) {
+                melhorDelta = deltaCost;
+                melhorNo = i;
+            }
+        }
+        
+        if (melhorNo < 0) {
+            return 0;
+        }
+        avaliarFechamento(melhorNo, true);
+        
+        // O fechamento altera vários nós: o cache é recalculado inteiro
+        for (int current = 0; current < numNodes; current++) {
+            avaliarOrigem(current);
+        }
+        return melhorDelta;
+    }
+    
+    // Menor classe de tamanho com pods no nó (que não pode estar vazio)
+    private int menorClasse(int node) {
+        int c = 0;
+        while (sizeClasses.getCount(node, c) == 0) {
+            c++;
+        }
+        return c;
+    }
+    
+    /**
+     * Religamento de caminhos: leva o estado atual em direção à solução guia, um pod
+     * por passo, sempre pelo movimento viável de menor variação de custo, e para na
+     * melhor solução intermediária do caminho (a própria guia não conta)
+     * Cada pod que difere vai uma única vez direto ao seu nó na guia, então os pods
+     * são agrupados por par (origem, destino) e, dentro do par, por classe de tamanho:
+     * a variação de custo do par vale para todos e basta olhar o menor pod restante
+     * Retorna a variação de custo até a solução escolhida (0 se nenhuma melhorou)
+     */
+    public double relink(int[] guiding) {
+        // Pods que diferem, na ordem (classe, índice)
+        int[] caminho = new int[guiding.length];
+        int tamanho = 0;
+        for (int pod : podsBySizeClass) {
+            int origem = state.getNode(pod);
+            if (origem >= 0 && guiding[pod] >= 0 && origem != guiding[pod]) {
+                caminho[tamanho++] = pod;
+            }
+        }
+        
+        // Ordenações estáveis por destino e depois por origem: (origem, destino, classe, índice)
+        int[] porDestino = ordenarPorNo(caminho, tamanho, guiding);
+        int[] origens = new int[state.getAllocation().length];
+        for (int k = 0; k < tamanho; k++) {
+            origens[porDestino[k]] = state.getNode(porDestino[k]);
+        }
+        int[] ordem = ordenarPorNo(porDestino, tamanho, origens);
+        
+        // Grupos de pods com o mesmo par (origem, destino), consumidos pela frente
+        int[] inicioGrupo = new int[tamanho];
+        int[] fimGrupo = new int[tamanho];
+        int numGrupos = 0;
+        for (int k = 0; k < tamanho; k++) {
+            int pod = ordem[k];
+            if (k == 0 || origens[pod] != origens[ordem[k - 1]] || guiding[pod] != guiding[ordem[k - 1]]) {
+                inicioGrupo[numGrupos++] = k;
             }
+            fimGrupo[numGrupos - 1] = k + 1;
         }
+        
+        int[] movidos = new int[tamanho];
+        int passos = 0;
+        double variacao = 0.0;
+        double melhorVariacao = 0.0;
+        int melhorPasso = 0;
+        
+        while (passos < tamanho) {
+            if (budget != null && budget.isExpired()) {
+                break;
+            }
+            
+            int melhorGrupo = -1;
+            double melhorDelta = Double.MAX_VALUE;
+            for (int g = 0; g < numGrupos; g++) {
+                if (inicioGrupo[g] == fimGrupo[g]) {
+                    continue;
+                }
+                int pod = ordem[inicioGrupo[g]];
+                int destino = guiding[pod];
+                if (!state.canAllocatePod(pod, destino)) {
+                    continue;
+                }
+                double deltaCost = calcularVariacaoCusto(origens[pod], destino);
+                if (deltaCost < melhorDelta || (deltaCost == melhorDelta && pod < ordem[inicioGrupo[melhorGrupo]])) {
+                    melhorDelta = deltaCost;
+                    melhorGrupo = g;
+                }
+            }
+            
+            // Nenhum pod restante cabe no seu destino: o caminho termina aqui
+            if (melhorGrupo < 0) {
+                break;
+            }
+            
+            int pod = ordem[inicioGrupo[melhorGrupo]++];
+            moverPod(pod, guiding[pod]);
+            movidos[passos++] = pod;
+            variacao += melhorDelta;
+            
+            if (passos < tamanho && variacao < melhorVariacao) {
+                melhorVariacao = variacao;
+                melhorPasso = passos;
+            }
+        }
+        
+        // Desfaz os passos depois da melhor solução intermediária
+        for (int k = passos - 1; k >= melhorPasso; k--) {
+            moverPod(movidos[k], origens[movidos[k]]);
+        }
+        
+        return melhorVariacao;
+    }
+    
+    // Ordenação estável (counting sort) de pods[0, tamanho) pelo nó em nos[pod]
+    private int[] ordenarPorNo(int[] pods, int tamanho, int[] nos) {
+        int[] inicio = new int[numNodes + 1];
+        for (int k = 0; k < tamanho; k++) {
+            inicio[nos[pods[k]] + 1]++;
+        }
+        for (int i = 0; i < numNodes; i++) {
+            inicio[i + 1] += inicio[i];
+        }
+        int[] ordenados = new int[tamanho];
+        for (int k = 0; k < tamanho; k++) {
+            ordenados[inicio[nos[pods[k]]]++] = pods[k];
+        }
+        return ordenados;
+    }
+    
+    // Melhor melhoria avaliada por par (origem, destino) e classe de tamanho, com o
+    // melhor movimento de cada origem no MoveGainCache: após cada movimento só as
+    // entradas afetadas pelos dois nós alterados são reavaliadas
+    public void execute() {
+        converged = false;
+        sizeClasses.load(state);
+        gainCache.clear();
+        for (int current = 0; current < numNodes; current++) {
+            if (budget != null && budget.isExpired()) {
+                return;
+            }
+            avaliarOrigem(current);
+        }
+        
+        // Custo corrente, mantido só para comparar com o custo alvo
+        double custo = budget != null ? calculateTotalCost() : 0.0;
+        
+        while (true) {
+            // Ótimo local de todas as vizinhanças ativas
+            if (gainCache.isEmpty() && !closeNeighborhood && !swapNeighborhood) {
+                break;
+            }
+            
+            // Parar no limite, com movimentos ou vizinhanças ainda por tentar, não é convergir
+            if (budget != null && (budget.isExpired() || budget.isTargetReached(custo))) {
+                return;
+            }
+            
+            // Ótimo local dos movimentos simples: tenta fechar um nó e depois uma troca
+            // que desbloqueie um movimento (as duas vizinhanças também consultam o
+            // prazo e retornam 0 se ele acabou)
+            if (gainCache.isEmpty()) {
+                double deltaVizinhanca = closeNeighborhood ? aplicarFechamentoDeNo() : 0.0;
+                if (deltaVizinhanca >= 0 && swapNeighborhood) {
+                    deltaVizinhanca = aplicarTrocaComMovimento();
+                }
+                if (deltaVizinhanca >= 0) {
+                    break;
+                }
+                custo += deltaVizinhanca;
+                continue;
+            }
+            
+            int current = gainCache.peek();
+            int target = gainCache.getTarget(current);
+            custo += gainCache.getDelta(current);
+            
+            aplicarMovimento(gainCache.getPod(current), target);
+            atualizarCache(current, target);
+        }
+        converged = budget == null || !budget.isExpired();
+    }
+    
+    /**
+     * Limita a busca por prazo, custo alvo ou cancelamento. Como todo movimento
+     * aplicado é de melhoria, ao parar antes do ótimo local o estado atual já é a
+     * melhor solução encontrada
+     */
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget;
+    }
+    
+    /**
+     * Ativa a vizinhança de troca (ver aplicarTrocaComMovimento) ao fim da descida
+     */
+    public void setSwapNeighborhood(boolean swapNeighborhood) {
+        this.swapNeighborhood = swapNeighborhood;
+    }
+    
+    /**
+     * Ativa o fechamento de nós (ver aplicarFechamentoDeNo) ao fim da descida
+     */
+    public void setCloseNeighborhood(boolean closeNeighborhood) {
+        this.closeNeighborhood = closeNeighborhood;
+    }
+    
+    /**
+     * Indica se a última execução chegou a um ótimo local (false se o limite a interrompeu)
+     */
+    public boolean isConverged() {
+        return converged;
     }
     
     public double calculateTotalCost() {
@@ -339,11 +773,8 @@ class LocalSearch {
         
         for (int i = 0; i < nodeOpened.length; i++) {
             if (nodeOpened[i]) {
-                totalCost += nodes.get(i).getOpeningCost();
-                
-                for (Pod pod : nodes.get(i).getPods()) {
-                    totalCost += nodes.get(i).getAllocationCost();
-                }
+                totalCost += openingCosts[i];
+                totalCost += allocationCosts[i] * state.getPodCount(i);
             }
         }
         
@@ -361,93 +792,643 @@ class LocalSearch {
     public boolean[] getNodeOpenedArray() {
         return nodeOpened;
     }
+    
+    public SolutionState getState() {
+        return state;
+    }
+}
+
+/**
+ * Seleção adaptativa de alpha do GRASP reativo
+ * Cada alpha do conjunto discreto é sorteado com probabilidade p_i. A cada período
+ * de k iterações as probabilidades são recalculadas a partir da qualidade média das
+ * soluções que cada alpha produziu: q_i = (melhor custo / custo médio_i)^amplificacao
+ * e p_i = q_i / soma(q). Um alpha ainda não usado recebe q_i = 1 para ser testado
+ */
+class ReactiveAlpha {
+    private double[] alphas;
+    private double[] probabilities;
+    private double[] costSums;
+    private int[] counts;
+    private int period;
+    private double amplification;
+    private double bestCost;
+    private int iterations;
+    
+    public ReactiveAlpha(double[] alphas, int period, double amplification) {
+        this.alphas = alphas.clone();
+        this.probabilities = new double[alphas.length];
+        this.costSums = new double[alphas.length];
+        this.counts = new int[alphas.length];
+        this.period = Math.max(1, period);
+        this.amplification = amplification;
+        this.bestCost = Double.MAX_VALUE;
+        Arrays.fill(probabilities, 1.0 / alphas.length);
+    }
+    
+    /**
+     * Sorteia o índice do alpha da próxima iteração (roleta sobre as probabilidades)
+     */
+    public int select(SplittableRandom random) {
+        double r = random.nextDouble();
+        double acumulado = 0.0;
+        for (int i = 0; i < probabilities.length - 1; i++) {
+            acumulado += probabilities[i];
+            if (r < acumulado) {
+                return i;
+            }
+        }
+        return probabilities.length - 1;
+    }
+    
+    public double getAlpha(int index) {
+        return alphas[index];
+    }
+    
+    /**
+     * Registra o custo obtido com o alpha e, ao fim de cada período, recalcula as
+     * probabilidades
+     */
+    public void record(int index, double cost) {
+        costSums[index] += cost;
+        counts[index]++;
+        bestCost = Math.min(bestCost, cost);
+        
+        iterations++;
+        if (iterations % period == 0) {
+            atualizarProbabilidades();
+        }
+    }
+    
+    private void atualizarProbabilidades() {
+        double soma = 0.0;
+        for (int i = 0; i < alphas.length; i++) {
+            double q = 1.0;
+            if (counts[i] > 0) {
+                double media = costSums[i] / counts[i];
+                q = Math.pow(bestCost / media, amplification);
+            }
+            probabilities[i] = q;
+            soma += q;
+        }
+        for (int i = 0; i < alphas.length; i++) {
+            probabilities[i] /= soma;
+        }
+    }
+    
+    public double[] getProbabilities() {
+        return probabilities.clone();
+    }
+    
+    public int[] getCounts() {
+        return counts.clone();
+    }
+}
+
+/**
+ * Conjunto elite do religamento de caminhos: no máximo capacity soluções, mantidas
+ * diversas pela distância de Hamming entre as alocações pod -> nó
+ * Uma solução entra se for melhor que todas, ou se estiver a pelo menos minDistance
+ * de todas e houver espaço ou ela for melhor que a pior. Com o conjunto cheio ela
+ * substitui, entre as piores que ela, a mais parecida
+ */
+class ElitePool {
+    private int capacity;
+    private int minDistance;
+    private List<int[]> solutions;
+    private List<Double> costs;
+    
+    public ElitePool(int capacity, int minDistance) {
+        this.capacity = capacity;
+        this.minDistance = minDistance;
+        this.solutions = new ArrayList<>();
+        this.costs = new ArrayList<>();
+    }
+    
+    public int size() {
+        return solutions.size();
+    }
+    
+    public int[] get(int index) {
+        return solutions.get(index);
+    }
+    
+    public double getCost(int index) {
+        return costs.get(index);
+    }
+    
+    /**
+     * Tenta incluir a solução (copiada se aceita); retorna se ela entrou no conjunto
+     */
+    public boolean add(int[] allocation, double cost) {
+        int[] distances = new int[solutions.size()];
+        int menorDistancia = Integer.MAX_VALUE;
+        double melhorCusto = Double.MAX_VALUE;
+        int pior = -1;
+        for (int e = 0; e < solutions.size(); e++) {
+            distances[e] = hamming(allocation, solutions.get(e));
+            menorDistancia = Math.min(menorDistancia, distances[e]);
+            melhorCusto = Math.min(melhorCusto, costs.get(e));
+            if (pior < 0 || costs.get(e) > costs.get(pior)) {
+                pior = e;
+            }
+        }
+        
+        if (menorDistancia == 0 || (cost >= melhorCusto && menorDistancia < minDistance)) {
+            return false;
+        }
+        
+        if (solutions.size() < capacity) {
+            solutions.add(allocation.clone());
+            costs.add(cost);
+            return true;
+        }
+        if (cost >= costs.get(pior)) {
+            return false;
+        }
+        
+        // Substitui a mais parecida dentre as piores que a nova solução
+        int substituida = -1;
+        for (int e = 0; e < solutions.size(); e++) {
+            if (costs.get(e) > cost && (substituida < 0 || distances[e] < distances[substituida])) {
+                substituida = e;
+            }
+        }
+        solutions.set(substituida, allocation.clone());
+        costs.set(substituida, cost);
+        return true;
+    }
+    
+    public static int hamming(int[] a, int[] b) {
+        int distance = 0;
+        for (int j = 0; j < a.length; j++) {
+            if (a[j] != b[j]) {
+                distance++;
+            }
+        }
+        return distance;
+    }
 }
 
 class Grasp {
+    private ProblemInstance instance;
     private List<Node> nodes;
     private List<Pod> pods;
-    private boolean[] bestNodeOpened;
-    private double bestCost;
-    private Random random;
+    private long seed;
     private double alpha;
+    private double[] alphas; // conjunto do GRASP reativo (null = alpha fixo)
+    private int reactivePeriod;
     private int maxIterations;
+    private int numThreads;
+    private int syncPeriod;  // iterações por bloco (0 = automático)
+    private AtomicReference<Incumbent> best;
+    private int[] alphaCounts;
+    private int eliteSize;   // tamanho do conjunto elite (0 = sem religamento de caminhos)
+    private int minDistance;
+    private boolean swapNeighborhood;
+    private boolean closeNeighborhood;
     
-    public Grasp(List<Node> nodes, List<Pod> pods, double alpha, int maxIterations, long seed) {
-        this.nodes = nodes;
-        this.pods = pods;
-        this.bestNodeOpened = new boolean[nodes.size()];
-        this.bestCost = Double.MAX_VALUE;
-        this.random = new Random(seed);
+    private int duplicateStarts;
+    private int completedIterations;
+    private SearchBudget budget; // null = só o limite de iterações
+    
+    // Expoente que acentua a diferença entre alphas bons e ruins no GRASP reativo
+    private static final double REACTIVE_AMPLIFICATION = 10.0;
+    
+    // Pontos de partida já descidos que são lembrados (os mais recentes)
+    private static final int START_CACHE_SIZE = 1024;
+    
+    // Tamanho automático do bloco com religamento de caminhos e sem nada adaptativo
+    private static final int ELITE_SYNC_PERIOD = 2;
+    private static final int DEFAULT_SYNC_PERIOD = 64;
+    
+    public Grasp(ProblemInstance instance, double alpha, int maxIterations, long seed) {
+        this(instance, alpha, maxIterations, seed, 1);
+    }
+    
+    /**
+     * Cada iteração usa o seu próprio fluxo aleatório, derivado da semente e do índice
+     * da iteração (RandomStreams), e o seu próprio estado de solução. As iterações
+     * rodam em blocos de tamanho fixo: dentro de um bloco elas só leem o estado
+     * adaptativo (probabilidades do GRASP reativo, conjunto elite, cache de pontos de
+     * partida), que é atualizado entre blocos com os resultados na ordem das
+     * iterações. Com numThreads > 1 as iterações de cada bloco são distribuídas entre
+     * as threads; o resultado é o mesmo para qualquer número de threads
+     */
+    public Grasp(ProblemInstance instance, double alpha, int maxIterations, long seed, int numThreads) {
+        this.instance = instance;
+        this.nodes = instance.getNodes();
+        this.pods = instance.getPods();
+        this.seed = seed;
         this.alpha = alpha;
         this.maxIterations = maxIterations;
+        this.numThreads = Math.max(1, numThreads);
+        this.best = new AtomicReference<>();
+    }
+    
+    /**
+     * GRASP reativo: a cada iteração o alpha é sorteado do conjunto alphas, com
+     * probabilidades recalculadas a cada reactivePeriod iterações (ver ReactiveAlpha).
+     * O período é também o tamanho do bloco, então o paralelismo fica limitado a
+     * reactivePeriod iterações simultâneas
+     */
+    public Grasp(ProblemInstance instance, double[] alphas, int reactivePeriod, int maxIterations, long seed, int numThreads) {
+        this(instance, alphas[0], maxIterations, seed, numThreads);
+        this.alphas = alphas.clone();
+        this.reactivePeriod = reactivePeriod;
+    }
+    
+    /**
+     * Ativa o religamento de caminhos: é mantido um ElitePool com até eliteSize
+     * soluções e cada novo ótimo local é religado com um elemento sorteado do
+     * conjunto, nos dois sentidos (para o elite e do elite para ele). A melhor
+     * solução intermediária de cada caminho passa pela busca local
+     */
+    public void setPathRelinking(int eliteSize, int minDistance) {
+        this.eliteSize = eliteSize;
+        this.minDistance = minDistance;
+    }
+    
+    /**
+     * Modo anytime: além de maxIterations, para quando o prazo do limite acabar, o
+     * melhor custo atingir o alvo ou a busca for cancelada, e devolve a melhor solução
+     * encontrada até ali. O limite também é repassado às buscas locais, que podem
+     * parar no meio da descida. As iterações só deixam de começar depois que existe
+     * alguma solução, para que haja sempre uma resposta. O alvo é comparado com a
+     * melhor solução só entre blocos, depois de incorporados os resultados; dentro de
+     * um bloco apenas o prazo e o cancelamento interrompem, e assim o alvo para a
+     * busca na mesma iteração com qualquer número de threads
+     */
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget;
+    }
+    
+    /**
+     * Ativa, nas buscas locais, a vizinhança de troca que desbloqueia movimentos
+     * quando os nós estão cheios (ver LocalSearch.setSwapNeighborhood)
+     */
+    public void setSwapNeighborhood(boolean swapNeighborhood) {
+        this.swapNeighborhood = swapNeighborhood;
+    }
+    
+    /**
+     * Ativa, nas buscas locais, o fechamento de nós com redistribuição dos seus pods
+     * (ver LocalSearch.setCloseNeighborhood)
+     */
+    public void setCloseNeighborhood(boolean closeNeighborhood) {
+        this.closeNeighborhood = closeNeighborhood;
+    }
+    
+    /**
+     * Define quantas iterações rodam entre atualizações do estado adaptativo. Blocos
+     * maiores aproveitam melhor muitas threads; o resultado depende do tamanho do
+     * bloco, mas não do número de threads
+     */
+    public void setSyncPeriod(int syncPeriod) {
+        this.syncPeriod = syncPeriod;
+    }
+    
+    private int tamanhoBloco() {
+        if (syncPeriod > 0) {
+            return syncPeriod;
+        }
+        if (alphas != null) {
+            return Math.max(1, reactivePeriod);
+        }
+        return eliteSize > 0 ? ELITE_SYNC_PERIOD : DEFAULT_SYNC_PERIOD;
     }
     
     public void execute() {
-        for (int iter = 0; iter < maxIterations; iter++) {
-            // Fase construtiva
-            GreedyRandomized greedyRandomized = new GreedyRandomized(nodes, pods, alpha, random);
-            greedyRandomized.execute();
+        if (numThreads == 1) {
+            executarBlocos(null);
+            applyBestSolution();
+            return;
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            execute(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Executa as iterações no executor informado e aplica a melhor solução aos nós e pods
+     */
+    public void execute(ExecutorService executor) {
+        executarBlocos(executor);
+        
+        // Após encontrar a melhor solução, aplicamos esta solução aos nós e pods
+        applyBestSolution();
+    }
+    
+    private void executarBlocos(ExecutorService executor) {
+        best.set(null);
+        duplicateStarts = 0;
+        completedIterations = 0;
+        
+        ReactiveAlpha reactive = alphas == null ? null : new ReactiveAlpha(alphas, reactivePeriod, REACTIVE_AMPLIFICATION);
+        ElitePool elite = eliteSize > 0 ? new ElitePool(eliteSize, minDistance) : null;
+        StartCache descidas = new StartCache(START_CACHE_SIZE);
+        int bloco = tamanhoBloco();
+        
+        for (int inicio = 0; inicio < maxIterations && !deveParar(); inicio += bloco) {
+            int fim = Math.min(maxIterations, inicio + bloco);
+            Resultado[] resultados = new Resultado[fim - inicio];
             
-            // Fase de busca local
-            LocalSearch localSearch = new LocalSearch(
-                nodes, 
-                pods, 
-                greedyRandomized.getNodeOpenedArray()
-            );
-            localSearch.execute();
+            if (executor == null) {
+                for (int iter = inicio; iter < fim; iter++) {
+                    resultados[iter - inicio] = executarIteracao(iter, reactive, elite, descidas);
+                }
+            } else {
+                List<Callable<Resultado>> tarefas = new ArrayList<>();
+                for (int iter = inicio; iter < fim; iter++) {
+                    final int it = iter;
+                    tarefas.add(() -> executarIteracao(it, reactive, elite, descidas));
+                }
+                aguardar(executor, tarefas, resultados);
+            }
+            
+            // Incorpora os resultados do bloco na ordem das iterações
+            for (Resultado resultado : resultados) {
+                if (resultado == null) {
+                    continue;
+                }
+                completedIterations++;
+                if (resultado.repetido) {
+                    duplicateStarts++;
+                } else {
+                    descidas.put(resultado.inicio, resultado.custoOtimoLocal);
+                }
+                if (reactive != null) {
+                    reactive.record(resultado.alphaIndex, resultado.custoOtimoLocal);
+                }
+                if (elite != null && resultado.allocation != null) {
+                    elite.add(resultado.allocation, resultado.custo);
+                }
+            }
+        }
+        
+        alphaCounts = reactive == null ? null : reactive.getCounts();
+    }
+    
+    private static void aguardar(ExecutorService executor, List<Callable<Resultado>> tarefas, Resultado[] resultados) {
+        try {
+            List<Future<Resultado>> futures = executor.invokeAll(tarefas);
+            for (int k = 0; k < futures.size(); k++) {
+                resultados[k] = futures.get(k).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("GRASP interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    /**
+     * Uma iteração do GRASP; todo o estado mutável (gerador aleatório, solução,
+     * estruturas da busca local) é local à iteração. reactive, elite e descidas só
+     * são lidos aqui. Retorna null se o limite impediu a iteração de começar
+     */
+    private Resultado executarIteracao(int iter, ReactiveAlpha reactive, ElitePool elite, StartCache descidas) {
+        if (prazoEsgotado()) {
+            return null;
+        }
+        
+        SplittableRandom random = RandomStreams.forTask(seed, iter);
+        Resultado resultado = new Resultado();
+        resultado.alphaIndex = reactive == null ? -1 : reactive.select(random);
+        double iterAlpha = reactive == null ? alpha : reactive.getAlpha(resultado.alphaIndex);
+        
+        // Fase construtiva
+        GreedyRandomized greedyRandomized = new GreedyRandomized(instance, iterAlpha, random);
+        greedyRandomized.execute();
+        
+        // Ponto de partida já descido: a busca local chegaria ao mesmo ótimo local,
+        // que já foi considerado para a melhor solução
+        resultado.inicio = greedyRandomized.getState().getHash();
+        Double custoConhecido = descidas.get(resultado.inicio);
+        if (custoConhecido != null) {
+            resultado.repetido = true;
+            resultado.custoOtimoLocal = custoConhecido;
+            return resultado;
+        }
+        
+        // Fase de busca local
+        LocalSearch localSearch = new LocalSearch(
+            instance,
+            greedyRandomized.getState(),
+            greedyRandomized.getNodeOpenedArray()
+        );
+        localSearch.setBudget(budget);
+        localSearch.setSwapNeighborhood(swapNeighborhood);
+        localSearch.setCloseNeighborhood(closeNeighborhood);
+        localSearch.execute();
+        
+        double currentCost = localSearch.calculateTotalCost();
+        resultado.custoOtimoLocal = currentCost;
+        
+        // Religamento de caminhos com um elemento sorteado do conjunto elite
+        if (elite != null && elite.size() > 0) {
+            int[] guia = elite.get(random.nextInt(elite.size()));
+            int[] otimoLocal = localSearch.getState().getAllocation().clone();
             
-            // Calcula o custo da solução atual
-            double currentCost = localSearch.calculateTotalCost();
+            // Para frente: do ótimo local em direção ao elite (sem melhoria o
+            // caminho é desfeito e o estado volta ao ótimo local)
+            LocalSearch frente = localSearch;
+            if (frente.relink(guia) < 0) {
+                frente.execute();
+            }
             
-            // Atualiza a melhor solução se necessário
-            if (currentCost < bestCost) {
-                bestCost = currentCost;
-                System.arraycopy(localSearch.getNodeOpenedArray(), 0, bestNodeOpened, 0, bestNodeOpened.length);
+            // Para trás: do elite em direção ao ótimo local
+            SolutionState estadoTras = new SolutionState(instance);
+            estadoTras.load(guia);
+            LocalSearch tras = new LocalSearch(instance, estadoTras);
+            tras.setBudget(budget);
+            tras.setSwapNeighborhood(swapNeighborhood);
+            tras.setCloseNeighborhood(closeNeighborhood);
+            if (tras.relink(otimoLocal) < 0) {
+                tras.execute();
             }
+            
+            localSearch = tras.calculateTotalCost() < frente.calculateTotalCost() ? tras : frente;
+            currentCost = localSearch.calculateTotalCost();
         }
         
-        // Após encontrar a melhor solução, aplicamos esta solução aos nós e pods
-        applyBestSolution();
+        resultado.custo = currentCost;
+        if (elite != null) {
+            resultado.allocation = localSearch.getState().getAllocation().clone();
+        }
+        
+        // Atualiza a melhor solução se necessário
+        atualizarMelhor(currentCost, iter, localSearch.getNodeOpenedArray(), localSearch.getState());
+        return resultado;
+    }
+    
+    /**
+     * Iterações cuja construção repetiu um ponto de partida já descido e que, por
+     * isso, pularam a busca local
+     */
+    public int getDuplicateStarts() {
+        return duplicateStarts;
+    }
+    
+    /**
+     * Iterações concluídas na última execução (menos que maxIterations se o limite parou a busca)
+     */
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+    
+    /**
+     * Quantas iterações usaram cada alpha do GRASP reativo (null no modo de alpha fixo)
+     */
+    public int[] getAlphaCounts() {
+        return alphaCounts == null ? null : alphaCounts.clone();
+    }
+    
+    // O limite só interrompe as iterações depois que existe alguma solução
+    private boolean deveParar() {
+        if (budget == null) {
+            return false;
+        }
+        Incumbent incumbent = best.get();
+        return incumbent != null && (budget.isExpired() || budget.isTargetReached(incumbent.cost));
     }
     
+    // Dentro de um bloco: a melhor solução muda conforme as outras threads terminam,
+    // então só o prazo e o cancelamento são consultados, nunca o alvo
+    private boolean prazoEsgotado() {
+        return budget != null && best.get() != null && budget.isExpired();
+    }
+    
+    /**
+     * Junta a solução à melhor global sem bloqueio (compareAndSet). Empates de custo
+     * ficam com a menor iteração, como na execução sequencial
+     */
+    private void atualizarMelhor(double cost, int iteration, boolean[] nodeOpened, SolutionState state) {
+        Incumbent atual = best.get();
+        if (atual != null && !atual.isWorseThan(cost, iteration)) {
+            return;
+        }
+        
+        Incumbent novo = new Incumbent(cost, iteration, nodeOpened.clone(), state.getAllocation().clone());
+        while (!best.compareAndSet(atual, novo)) {
+            atual = best.get();
+            if (atual != null && !atual.isWorseThan(cost, iteration)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Restaura nos nós e pods a alocação guardada da melhor solução, em O(N + P):
+     * o custo aplicado é exatamente o custo medido em getBestCost
+     */
     private void applyBestSolution() {
         // Primeiro, limpa todas as alocações atuais
         for (Node node : nodes) {
             node.clear();
         }
         
-        // Agora, para cada pod, encontramos o nó com menor custo dentre os abertos
-        for (Pod pod : pods) {
-            Node bestNode = null;
-            double bestAllocationCost = Double.MAX_VALUE;
-            
-            for (int i = 0; i < bestNodeOpened.length; i++) {
-                if (bestNodeOpened[i]) {
-                    Node node = nodes.get(i);
-                    if (node.canAllocatePod(pod) && node.getAllocationCost() < bestAllocationCost) {
-                        bestNode = node;
-                        bestAllocationCost = node.getAllocationCost();
-                    }
-                }
-            }
-            
-            if (bestNode != null) {
-                bestNode.allocatePod(pod);
+        Incumbent incumbent = best.get();
+        if (incumbent == null) {
+            return;
+        }
+        
+        int[] allocation = incumbent.allocation;
+        for (int j = 0; j < allocation.length; j++) {
+            if (allocation[j] >= 0) {
+                nodes.get(allocation[j]).allocatePod(pods.get(j));
             }
         }
     }
     
     public double getBestCost() {
-        return bestCost;
+        Incumbent incumbent = best.get();
+        return incumbent == null ? Double.MAX_VALUE : incumbent.cost;
+    }
+    
+    /**
+     * Alocação da melhor solução (índice do nó de cada pod, -1 = não alocado), ou null
+     */
+    public int[] getBestAllocation() {
+        Incumbent incumbent = best.get();
+        return incumbent == null ? null : incumbent.allocation.clone();
     }
     
     public int getBestOpenedNodesCount() {
+        Incumbent incumbent = best.get();
+        if (incumbent == null) {
+            return 0;
+        }
         int count = 0;
-        for (boolean isOpen : bestNodeOpened) {
+        for (boolean isOpen : incumbent.nodeOpened) {
             if (isOpen) count++;
         }
         return count;
     }
+    
+    /**
+     * Cache limitado de pontos de partida já descidos: hash de Zobrist do estado
+     * construído -> custo do ótimo local obtido a partir dele. Descarta as entradas
+     * mais antigas (ordem de inserção, para que get não altere o mapa durante um bloco)
+     */
+    private static final class StartCache extends LinkedHashMap<Long, Double> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+        
+        StartCache(int capacity) {
+            super(16, 0.75f, false);
+            this.capacity = capacity;
+        }
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Double> eldest) {
+            return size() > capacity;
+        }
+    }
+    
+    /**
+     * Resultado de uma iteração, incorporado ao estado adaptativo ao fim do bloco
+     */
+    private static final class Resultado {
+        private int alphaIndex;
+        private long inicio;            // hash do ponto de partida
+        private boolean repetido;       // ponto de partida já descido
+        private double custoOtimoLocal; // custo após a busca local
+        private double custo;           // custo final (após o religamento de caminhos)
+        private int[] allocation;       // só com religamento de caminhos
+    }
+    
+    /**
+     * Melhor solução encontrada (imutável, publicada via AtomicReference)
+     */
+    private static final class Incumbent {
+        private final double cost;
+        private final int iteration;
+        private final boolean[] nodeOpened;
+        private final int[] allocation;
+        
+        Incumbent(double cost, int iteration, boolean[] nodeOpened, int[] allocation) {
+            this.cost = cost;
+            this.iteration = iteration;
+            this.nodeOpened = nodeOpened;
+            this.allocation = allocation;
+        }
+        
+        boolean isWorseThan(double otherCost, int otherIteration) {
+            if (cost != otherCost) {
+                return otherCost < cost;
+            }
+            return otherIteration < iteration;
+        }
+    }
 }
 
 public class GraspScheduler {
@@ -461,9 +1442,34 @@ public class GraspScheduler {
         double alpha = 0.3; // Fator de aleatoriedade (0-1)
         int maxIterations = 10; // Número máximo de iterações
         long seed = 100; // Semente para reprodutibilidade
+        int numThreads = args.length > 0 ? Integer.parseInt(args[0]) : 1; // Threads do GRASP (1 = sequencial)
+        
+        // Parâmetros do GRASP reativo
+        double[] reactiveAlphas = {0.0, 0.1, 0.2, 0.3, 0.4, 0.5}; // Valores candidatos de alpha
+        int reactivePeriod = 5; // Iterações entre recálculos das probabilidades
+        
+        // Parâmetros do religamento de caminhos
+        int eliteSize = 10; // Tamanho do conjunto elite
 
         FileWriter writerGrasp = new FileWriter(new File("grasp_optimized.csv"));
-        writerGrasp.write("number of pods; number of nodes; solution cost; time (ms) \n");
+        writerGrasp.write("number of pods; number of nodes; solution cost; time (ms); gap \n");
+
+        FileWriter writerReactive = new FileWriter(new File("grasp_reactive.csv"));
+        writerReactive.write("number of pods; number of nodes; solution cost; time (ms); gap \n");
+
+        FileWriter writerRelinking = new FileWriter(new File("grasp_relinking.csv"));
+        writerRelinking.write("number of pods; number of nodes; solution cost; time (ms); gap \n");
+
+        FileWriter writerSwap = new FileWriter(new File("grasp_swap.csv"));
+        writerSwap.write("number of pods; number of nodes; solution cost; time (ms); gap \n");
+
+        FileWriter writerClose = new FileWriter(new File("grasp_close.csv"));
+        writerClose.write("number of pods; number of nodes; solution cost; time (ms); gap \n");
+
+        // GRASP stopped when the incumbent is within gapTolerance of the LP-relaxation bound
+        double gapTolerance = 0.05;
+        FileWriter writerBound = new FileWriter(new File("grasp_lp_bound.csv"));
+        writerBound.write("number of pods; number of nodes; lower bound; solution cost; gap; iterations; time (ms) \n");
 
         // Set the global random seed for reproducibility
         Random globalRandom = new Random(seed);
@@ -476,53 +1482,28 @@ public class GraspScheduler {
 
                 System.out.println("Total pods: " + numPods + " and Total Nodes: " + numNodes);
 
-                // Create the data structures and generate random data.
-                List<Node> nodes = new ArrayList<>(numNodes);
-                List<Pod> pods = new ArrayList<>(numPods);
-
-                int capacityMin = numPods / numNodes + 1; 
-                int capacityMax = numPods * 2;
+                // Create the instance using random data with fixed seed for reproducibility
+                ProblemInstance instance = ProblemInstance.generate(numPods, numNodes, new Random(seed));
 
-                int resourceUsageMin = 1; 
-                int resourceUsageMax = 10;
-
-                int openingCostInit = 1; 
-                int openingCostEnd = 4 * numNodes;
-
-                int allocatingCostInit = 1;
-                int allocatingCostEnd = 4 * numNodes;
-
-                // Create nodes using random data with fixed seed for reproducibility
-                Random random = new Random(seed);
-                for (int i = 0; i < numNodes; i++) {
-                    int capacity = random.nextInt(capacityMax - capacityMin + 1) + capacityMin;
-                    double openingCost = random.nextInt(openingCostEnd - openingCostInit + 1) + openingCostInit;
-                    double allocationCost = random.nextInt(allocatingCostEnd - allocatingCostInit + 1) + allocatingCostInit;
-                    
-                    Node node = new Node(capacity, i, openingCost, allocationCost);
-                    nodes.add(node);
-                }
-
-                // Create pods using random data with fixed seed for reproducibility
-                for (int j = 0; j < numPods; j++) {
-                    int resourceUsage = random.nextInt(resourceUsageMax - resourceUsageMin + 1) + resourceUsageMin;
-                    Pod pod = new Pod(resourceUsage, j);
-                    pods.add(pod);
-                }
+                // Dual-ascent lower bound: the results below are reported with their optimality gap
+                DualAscent dual = new DualAscent(instance);
+                dual.execute();
 
                 // Measure execution time
                 long startTime = System.currentTimeMillis();
                 
                 double totalCostSum = 0;
                 int usedNodesSum = 0;
+                int duplicateStartsSum = 0;
                 
                 for (int i = 0; i < numberExecutions; i++) {
                     // Create a new GRASP instance for each execution
-                    Grasp grasp = new Grasp(nodes, pods, alpha, maxIterations, seed + i);
+                    Grasp grasp = new Grasp(instance, alpha, maxIterations, seed + i, numThreads);
                     grasp.execute();
                     
                     totalCostSum += grasp.getBestCost();
                     usedNodesSum += grasp.getBestOpenedNodesCount();
+                    duplicateStartsSum += grasp.getDuplicateStarts();
                 }
                 
                 long endTime = System.currentTimeMillis();
@@ -535,19 +1516,162 @@ public class GraspScheduler {
                 // Print results
                 System.out.println("=== GRASP Results (Optimized) ===");
                 System.out.println("Used nodes: " + usedNodes);
-                System.out.println("Solution cost: " + totalCost);
+                System.out.println("Solution cost: " + totalCost + " (gap: "
+                        + String.format("%.2f", dual.getGap(totalCost) * 100) + "%)");
                 System.out.println("Time taken: " + elapsedTime + " ms");
                 System.out.println("Alpha parameter: " + alpha);
                 System.out.println("Max iterations: " + maxIterations);
+                System.out.println("Threads: " + numThreads);
+                System.out.println("Duplicate starts skipped: " + duplicateStartsSum);
                 System.out.println("======================\n");
 
                 // Write to CSV
-                writerGrasp.write(numPods + "; " + numNodes + "; " + totalCost + "; " + elapsedTime + "\n");
+                writerGrasp.write(numPods + "; " + numNodes + "; " + totalCost + "; " + elapsedTime + "; "
+                        + dual.getGap(totalCost) + "\n");
                 writerGrasp.flush();
+
+                // Reactive GRASP with the same iteration budget
+                startTime = System.currentTimeMillis();
+                totalCostSum = 0;
+                int[] alphaCounts = new int[reactiveAlphas.length];
+
+                for (int i = 0; i < numberExecutions; i++) {
+                    Grasp grasp = new Grasp(instance, reactiveAlphas, reactivePeriod, maxIterations, seed + i, numThreads);
+                    grasp.execute();
+
+                    totalCostSum += grasp.getBestCost();
+                    int[] counts = grasp.getAlphaCounts();
+                    for (int a = 0; a < counts.length; a++) {
+                        alphaCounts[a] += counts[a];
+                    }
+                }
+
+                elapsedTime = (System.currentTimeMillis() - startTime) / numberExecutions;
+                double reactiveCost = totalCostSum / numberExecutions;
+
+                System.out.println("=== Reactive GRASP Results ===");
+                System.out.println("Solution cost: " + reactiveCost);
+                System.out.println("Time taken: " + elapsedTime + " ms");
+                System.out.println("Alpha values: " + Arrays.toString(reactiveAlphas));
+                System.out.println("Alpha usage: " + Arrays.toString(alphaCounts));
+                System.out.println("======================\n");
+
+                writerReactive.write(numPods + "; " + numNodes + "; " + reactiveCost + "; " + elapsedTime + "; "
+                        + dual.getGap(reactiveCost) + "\n");
+                writerReactive.flush();
+
+                // GRASP with path relinking, same alpha and iteration budget
+                startTime = System.currentTimeMillis();
+                totalCostSum = 0;
+
+                for (int i = 0; i < numberExecutions; i++) {
+                    Grasp grasp = new Grasp(instance, alpha, maxIterations, seed + i, numThreads);
+                    grasp.setPathRelinking(eliteSize, Math.max(1, numPods / 50)); // Elite members differ in at least 2% of the pods
+                    grasp.execute();
+
+                    totalCostSum += grasp.getBestCost();
+                }
+
+                elapsedTime = (System.currentTimeMillis() - startTime) / numberExecutions;
+                double relinkingCost = totalCostSum / numberExecutions;
+
+                System.out.println("=== GRASP + Path Relinking Results ===");
+                System.out.println("Solution cost: " + relinkingCost);
+                System.out.println("Time taken: " + elapsedTime + " ms");
+                System.out.println("Elite size: " + eliteSize);
+                System.out.println("======================\n");
+
+                writerRelinking.write(numPods + "; " + numNodes + "; " + relinkingCost + "; " + elapsedTime + "; "
+                        + dual.getGap(relinkingCost) + "\n");
+                writerRelinking.flush();
+
+                // GRASP with the swap neighborhood in the local search, same alpha and iteration budget
+                startTime = System.currentTimeMillis();
+                totalCostSum = 0;
+
+                for (int i = 0; i < numberExecutions; i++) {
+                    Grasp grasp = new Grasp(instance, alpha, maxIterations, seed + i, numThreads);
+                    grasp.setSwapNeighborhood(true);
+                    grasp.execute();
+
+                    totalCostSum += grasp.getBestCost();
+                }
+
+                elapsedTime = (System.currentTimeMillis() - startTime) / numberExecutions;
+                double swapCost = totalCostSum / numberExecutions;
+
+                System.out.println("=== GRASP + Swap Neighborhood Results ===");
+                System.out.println("Solution cost: " + swapCost);
+                System.out.println("Time taken: " + elapsedTime + " ms");
+                System.out.println("======================\n");
+
+                writerSwap.write(numPods + "; " + numNodes + "; " + swapCost + "; " + elapsedTime + "; "
+                        + dual.getGap(swapCost) + "\n");
+                writerSwap.flush();
+
+                // GRASP with node closing in the local search, same alpha and iteration budget
+                startTime = System.currentTimeMillis();
+                totalCostSum = 0;
+
+                for (int i = 0; i < numberExecutions; i++) {
+                    Grasp grasp = new Grasp(instance, alpha, maxIterations, seed + i, numThreads);
+                    grasp.setCloseNeighborhood(true);
+                    grasp.execute();
+
+                    totalCostSum += grasp.getBestCost();
+                }
+
+                elapsedTime = (System.currentTimeMillis() - startTime) / numberExecutions;
+                double closeCost = totalCostSum / numberExecutions;
+
+                System.out.println("=== GRASP + Node Closing Results ===");
+                System.out.println("Solution cost: " + closeCost);
+                System.out.println("Time taken: " + elapsedTime + " ms");
+                System.out.println("======================\n");
+
+                writerClose.write(numPods + "; " + numNodes + "; " + closeCost + "; " + elapsedTime + "; "
+                        + dual.getGap(closeCost) + "\n");
+                writerClose.flush();
+
+                // GRASP with LP-bound early termination, same alpha and iteration budget
+                LpBound bound = new LpBound(instance);
+                startTime = System.currentTimeMillis();
+                totalCostSum = 0;
+                long iterationsSum = 0;
+
+                for (int i = 0; i < numberExecutions; i++) {
+                    bound.execute();
+                    Grasp grasp = new Grasp(instance, alpha, maxIterations, seed + i, numThreads);
+                    grasp.setBudget(SearchBudget.ofTargetCost(bound.getTargetCost(gapTolerance)));
+                    grasp.execute();
+
+                    totalCostSum += grasp.getBestCost();
+                    iterationsSum += grasp.getCompletedIterations();
+                }
+
+                elapsedTime = (System.currentTimeMillis() - startTime) / numberExecutions;
+                double boundedCost = totalCostSum / numberExecutions;
+
+                System.out.println("=== GRASP + LP Bound Early Termination Results ===");
+                System.out.println("Lower bound: " + bound.getLowerBound());
+                System.out.println("Solution cost: " + boundedCost + " (gap: "
+                        + String.format("%.2f", bound.getGap(boundedCost) * 100) + "%)");
+                System.out.println("Iterations: " + (iterationsSum / numberExecutions) + " of " + maxIterations);
+                System.out.println("Time taken: " + elapsedTime + " ms");
+                System.out.println("======================\n");
+
+                writerBound.write(numPods + "; " + numNodes + "; " + bound.getLowerBound() + "; " + boundedCost + "; "
+                        + bound.getGap(boundedCost) + "; " + (iterationsSum / numberExecutions) + "; " + elapsedTime + "\n");
+                writerBound.flush();
             }
         }
 
         writerGrasp.close();
+        writerReactive.close();
+        writerRelinking.close();
+        writerSwap.close();
+        writerClose.close();
+        writerBound.close();
         System.out.println("CSV file written successfully");
     }
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Implementação da heurística gulosa para o escalonamento de pods em Kubernetes
+ * Baseada no algoritmo descrito no artigo que modela o problema como CFLP
+ */
+class GreedyHeuristic {
+    private List<Node> nodes;
+    private List<Pod> pods;
+    private double[] openingCosts;
+    private double[] allocationCosts;
+    private int[] allocation; // índice do nó de cada pod (-1 = não alocado)
+    private BitSet openedNodes; // bit i ligado = nó i aberto
+    private PlacementIndex placementIndex;
+    private int[] sizeClasses;
+    private int[] podSizeClasses;
+    private int[] podsBySizeClass;
+    private int[] sizeClassStarts;
+    private int[] podOrder; // ordem original dos pods (0..P-1)
+    private int[] bestBySizeClass; // melhor nó conhecido por classe (-1 = nenhum, -2 = desconhecido)
+
+    public GreedyHeuristic(ProblemInstance instance) {
+        this.nodes = instance.getNodes();
+        this.pods = instance.getPods();
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.allocation = new int[pods.size()];
+        Arrays.fill(this.allocation, -1);
+        this.openedNodes = new BitSet(nodes.size());
+        this.placementIndex = new PlacementIndex(instance);
+        this.sizeClasses = instance.getSizeClasses();
+        this.podSizeClasses = instance.getPodSizeClasses();
+        this.podsBySizeClass = instance.getPodsBySizeClass();
+        this.sizeClassStarts = instance.getSizeClassStarts();
+        this.podOrder = new int[pods.size()];
+        for (int j = 0; j < podOrder.length; j++) {
+            podOrder[j] = j;
+        }
+        this.bestBySizeClass = new int[sizeClasses.length];
+    }
+
+    /**
+     * Limpa a solução atual (nós, alocação, nós abertos e índice)
+     */
+    private void limparSolucao() {
+        for (Node node : nodes) {
+            node.clear();
+        }
+        Arrays.fill(allocation, -1);
+        openedNodes.clear();
+        placementIndex.reset();
+    }
+
+    /**
+     * Executa a heurística construtiva gulosa
+     * Seguindo o algoritmo descrito no artigo:
+     * 1. Ordena os nós por custo de abertura
+     * 2. Para cada pod, encontra o nó que minimiza o custo de alocação
+     * A busca do melhor nó usa o PlacementIndex (O(log N) por pod) e escolhe
+     * o mesmo nó que a varredura na ordem por custo de abertura escolheria
+     */
+    public void execute() {
+        // Limpa alocações anteriores
+        limparSolucao();
+
+        // Para cada pod
+        for (Pod pod : pods) {
+            // Nó mais barato com capacidade livre suficiente
+            int best = placementIndex.findBestNode(pod.getResourceUsage());
+
+            // Se encontrou um nó viável, aloca o pod a ele
+            if (best >= 0) {
+                Node bestNode = nodes.get(best);
+                allocation[pod.getIndex()] = best;
+                openedNodes.set(best);
+                bestNode.allocatePod(pod);
+                placementIndex.update(best, bestNode.getResidualCapacity(), true);
+            }
+        }
+    }
+
+    /**
+     * Executa a heurística gulosa em lotes por classe de tamanho
+     * O custo de um pod depende só do seu tamanho e do estado dos nós, e o melhor nó
+     * de uma classe continua sendo o melhor até não caber mais um pod dela. Assim uma
+     * sequência de pods iguais é alocada ao mesmo nó com uma única consulta ao índice
+     * Com keepPodOrder = true os pods seguem a ordem original e a alocação é idêntica
+     * à de execute(); com false os pods são agrupados por classe (menores primeiro)
+     */
+    public void executeBySizeClass(boolean keepPodOrder) {
+        limparSolucao();
+
+        if (keepPodOrder) {
+            alocarNaOrdemOriginal();
+        } else {
+            alocarPorClasse();
+        }
+    }
+
+    /**
+     * Percorre os pods na ordem original, mantendo o melhor nó de cada classe em cache
+     */
+    private void alocarNaOrdemOriginal() {
+        Arrays.fill(bestBySizeClass, -2);
+
+        int j = 0;
+        while (j < podOrder.length) {
+            int c = podSizeClasses[j];
+            int size = sizeClasses[c];
+
+            // Sequência de pods consecutivos da mesma classe
+            int runEnd = j + 1;
+            while (runEnd < podOrder.length && podSizeClasses[runEnd] == c) {
+                runEnd++;
+            }
+
+            while (j < runEnd) {
+                if (bestBySizeClass[c] == -2) {
+                    bestBySizeClass[c] = placementIndex.findBestNode(size);
+                }
+
+                // Nenhum nó comporta esta classe: os pods ficam sem alocação
+                int best = bestBySizeClass[c];
+                if (best < 0) {
+                    j = runEnd;
+                    break;
+                }
+
+                j = alocarSequencia(podOrder, j, runEnd, best, size);
+                atualizarMelhoresPorClasse(best);
+            }
+        }
+    }
+
+    /**
+     * Aloca cada classe de uma vez, da menor para a maior
+     */
+    private void alocarPorClasse() {
+        for (int c = 0; c < sizeClasses.length; c++) {
+            int size = sizeClasses[c];
+            int k = sizeClassStarts[c];
+
+            while (k < sizeClassStarts[c + 1]) {
+                int best = placementIndex.findBestNode(size);
+
+                // Nenhum nó comporta os pods restantes desta classe
+                if (best < 0) {
+                    break;
+                }
+
+                k = alocarSequencia(podsBySizeClass, k, sizeClassStarts[c + 1], best, size);
+            }
+        }
+    }
+
+    /**
+     * Aloca ao nó os pods order[from..to) enquanto houver capacidade
+     * Retorna a posição do primeiro pod que não foi alocado
+     */
+    private int alocarSequencia(int[] order, int from, int to, int node, int size) {
+        Node target = nodes.get(node);
+        int count = Math.min(to - from, target.getResidualCapacity() / size);
+
+        for (int k = from; k < from + count; k++) {
+            int j = order[k];
+            allocation[j] = node;
+            target.allocatePod(pods.get(j));
+        }
+
+        openedNodes.set(node);
+        placementIndex.update(node, target.getResidualCapacity(), true);
+        return from + count;
+    }
+
+    /**
+     * Após alocar pods a um nó, só ele mudou: o cache de cada classe continua válido,
+     * exceto se o nó em cache encheu ou se o nó alterado passou a ser melhor
+     */
+    private void atualizarMelhoresPorClasse(int node) {
+        int residual = nodes.get(node).getResidualCapacity();
+
+        for (int c = 0; c < bestBySizeClass.length; c++) {
+            int cached = bestBySizeClass[c];
+
+            if (cached == node) {
+                if (residual < sizeClasses[c]) {
+                    bestBySizeClass[c] = -2;
+                }
+            } else if (cached >= 0 && residual >= sizeClasses[c]
+                    && placementIndex.isBetter(node, true, cached, openedNodes.get(cached))) {
+                bestBySizeClass[c] = node;
+            }
+        }
+    }
+
+    /**
+     * Calcula o custo total da solução
+     */
+    public double calculateTotalCost() {
+        double totalCost = 0.0;
+
+        // Soma os custos de abertura para todos os nós abertos
+        for (int i = openedNodes.nextSetBit(0); i >= 0; i = openedNodes.nextSetBit(i + 1)) {
+            totalCost += openingCosts[i];
+        }
+
+        // Soma os custos de alocação
+        for (int node : allocation) {
+            if (node >= 0) {
+                totalCost += allocationCosts[node];
+            }
+        }
+
+        return totalCost;
+    }
+
+    /**
+     * Retorna o número de nós abertos na solução
+     */
+    public int getOpenedNodesCount() {
+        return openedNodes.cardinality();
+    }
+
+    /**
+     * Retorna todos os nós abertos na solução
+     */
+    public BitSet getOpenedNodes() {
+        return openedNodes;
+    }
+
+    /**
+     * Retorna o vetor de alocação (índice do pod -> índice do nó, -1 se não alocado)
+     */
+    public int[] getAllocation() {
+        return allocation;
+    }
+}
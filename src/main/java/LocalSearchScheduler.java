@@ -1,380 +1,396 @@
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.TreeSet;
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Comparator;
-
-class Pod {
-    private int resourceUsage;
-    private int index;
-
-    public Pod(int resourceUsage, int index) {
-        this.resourceUsage = resourceUsage;
-        this.index = index;
-    }
-
-    public int getResourceUsage() {
-        return resourceUsage;
-    }
-
-    public int getIndex() {
-        return index;
-    }
-}
-
-class Node implements Comparable<Node> {
-    private int capacity;
-    private List<Pod> pods;
-    private int index;
-    private double openingCost;
-    private double allocationCost;
-
-    public Node(int capacity, int index, double openingCost, double allocationCost) {
-        this.capacity = capacity;
-        this.pods = new ArrayList<>();
-        this.index = index;
-        this.openingCost = openingCost;
-        this.allocationCost = allocationCost;
-    }
-
-    public int getCapacity() {
-        return capacity;
-    }
-
-    public double getOpeningCost() {
-        return openingCost;
-    }
-
-    public double getAllocationCost() {
-        return allocationCost;
-    }
-
-    public boolean canAllocatePod(Pod pod) {
-        int totalPodsSize = pods.stream().mapToInt(Pod::getResourceUsage).sum();
-        return totalPodsSize + pod.getResourceUsage() <= capacity;
-    }
-
-    public void allocatePod(Pod pod) {
-        pods.add(pod);
-    }
-
-    public List<Pod> getPods() {
-        return pods;
-    }
-
-    public int getIndex() {
-        return index;
-    }
-  
-    public void clear() {
-        pods.clear();
-    }
-
-    public int compareTo(Node nodeTemp) {
-        if (this.index < nodeTemp.index)
-            return -1;
-        else if (this.index > nodeTemp.index)
-            return 1;
-        else
-            return 0;
-    }
-}
 
 /**
- * Implementação da heurística gulosa para o escalonamento de pods em Kubernetes
+ * Implementação da Busca Local com Melhor Melhoria para o escalonamento de pods
  * Baseada no algoritmo descrito no artigo que modela o problema como CFLP
  */
-class GreedyHeuristic {
+class LocalSearch {
     private List<Node> nodes;
     private List<Pod> pods;
-    private HashMap<Pod, Node> allocation;
-    private TreeSet<Node> openedNodes;
-
-    public GreedyHeuristic(List<Node> nodes, List<Pod> pods) {
-        this.nodes = nodes;
-        this.pods = pods;
-        this.allocation = new HashMap<>();
-        this.openedNodes = new TreeSet<>();
-    }
-
-    /**
-     * Verifica se um nó tem capacidade suficiente para acomodar um pod
-     */
-    private boolean temCapacidadeSuficiente(Node node, Pod pod) {
-        int usedCapacity = 0;
+    private double[] openingCosts;
+    private double[] allocationCosts;
+    private int[] allocation; // índice do nó de cada pod (-1 = não alocado)
+    private BitSet openedNodes; // bit i ligado = nó i aberto
+    private NodeSizeClasses sizeClasses;
+    private MoveGainCache gainCache;
+    private SearchBudget budget; // null = sem limite
+    private boolean converged;
+    private boolean firstImprovement;
+    private SplittableRandom shuffleRandom; // null = ordem circular fixa
+    private double variacaoEncontrada;       // variação do movimento achado por procurarPrimeiraMelhoria
+    private long evaluations;
+    
+    public LocalSearch(ProblemInstance instance, int[] initialAllocation, BitSet initialOpenedNodes) {
+        this.nodes = instance.getNodes();
+        this.pods = instance.getPods();
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.allocation = new int[initialAllocation.length];
+        System.arraycopy(initialAllocation, 0, this.allocation, 0, initialAllocation.length);
+        this.openedNodes = (BitSet) initialOpenedNodes.clone();
+        
+        // Aplicar a alocação inicial aos nós
+        for (Node node : nodes) {
+            node.clear();
+        }
         
-        // Calcula a capacidade já utilizada pelos pods alocados a este nó
-        for (Pod allocatedPod : node.getPods()) {
-            usedCapacity += allocatedPod.getResourceUsage();
+        for (int j = 0; j < allocation.length; j++) {
+            if (allocation[j] >= 0) {
+                nodes.get(allocation[j]).allocatePod(pods.get(j));
+            }
         }
         
-        // Verifica se há espaço suficiente para o novo pod
-        return (usedCapacity + pod.getResourceUsage() <= node.getCapacity());
+        this.sizeClasses = new NodeSizeClasses(instance);
+        sizeClasses.load(nodes);
+        this.gainCache = new MoveGainCache(nodes.size());
     }
     
     /**
-     * Calcula o custo de alocar um pod a um nó
+     * Calcula a variação de custo ao mover um pod de um nó para outro
+     * A variação não depende de qual pod é movido, apenas dos dois nós
      */
-    private double calcularCustoAlocacao(Node node, Pod pod) {
-        double cost = 0.0;
+    private double calcularVariacaoCusto(int current, int target) {
+        evaluations++;
+        double deltaCost = 0.0;
         
-        // Se o nó não estiver aberto, adiciona o custo de abertura
-        if (!openedNodes.contains(node)) {
-            cost += node.getOpeningCost();
+        // Remover custo da alocação atual
+        deltaCost -= allocationCosts[current];
+        
+        // Adicionar custo da nova alocação
+        deltaCost += allocationCosts[target];
+        
+        // Se o nó atual ficará vazio, remover seu custo de abertura
+        boolean currentNodeWillBeEmpty = nodes.get(current).getPods().size() == 1;
+        if (currentNodeWillBeEmpty) {
+            deltaCost -= openingCosts[current];
         }
         
-        // Adiciona o custo de alocação
-        cost += node.getAllocationCost();
+        // Se o novo nó não está aberto, adicionar seu custo de abertura
+        if (!openedNodes.get(target)) {
+            deltaCost += openingCosts[target];
+        }
         
-        return cost;
+        return deltaCost;
     }
     
     /**
-     * Executa a heurística construtiva gulosa
-     * Seguindo o algoritmo descrito no artigo:
-     * 1. Ordena os nós por custo de abertura
-     * 2. Para cada pod, encontra o nó que minimiza o custo de alocação
+     * Avalia mover um pod de current para target e, se for uma melhoria melhor que a
+     * guardada para current, atualiza o cache
      */
-    public void execute() {
-        // Limpa alocações anteriores
-        for (Node node : nodes) {
-            node.clear();
+    private void avaliarMovimento(int current, int target) {
+        double deltaCost = calcularVariacaoCusto(current, target);
+        if (deltaCost >= 0 || (gainCache.contains(current) && deltaCost > gainCache.getDelta(current))) {
+            return;
         }
-        allocation.clear();
-        openedNodes.clear();
-        
-        // Ordena os nós por custo de abertura (crescente)
-        List<Node> sortedNodes = new ArrayList<>(nodes);
-        sortedNodes.sort(Comparator.comparingDouble(Node::getOpeningCost));
         
-        // Para cada pod
-        for (Pod pod : pods) {
-            double bestCost = Double.MAX_VALUE;
-            Node bestNode = null;
-            
-            // Tenta cada nó
-            for (Node node : sortedNodes) {
-                // Verifica se o nó tem capacidade para este pod
-                if (temCapacidadeSuficiente(node, pod)) {
-                    // Calcula o custo
-                    double cost = calcularCustoAlocacao(node, pod);
-                    
-                    // Se o custo for melhor que o atual, atualiza
-                    if (cost < bestCost) {
-                        bestCost = cost;
-                        bestNode = node;
-                    }
-                }
-            }
-            
-            // Se encontrou um nó viável, aloca o pod a ele
-            if (bestNode != null) {
-                allocation.put(pod, bestNode);
-                openedNodes.add(bestNode);
-                bestNode.allocatePod(pod);
-            }
+        // Pod de menor índice da origem que cabe no destino
+        int pod = sizeClasses.findFirstPodFitting(current, nodes.get(target).getResidualCapacity());
+        if (pod >= 0 && gainCache.isBetter(current, deltaCost, pod, target)) {
+            gainCache.set(current, deltaCost, pod, target);
         }
     }
     
     /**
-     * Calcula o custo total da solução
+     * Recalcula o melhor movimento a partir de um nó de origem (O(N · classes))
      */
-    public double calculateTotalCost() {
-        double totalCost = 0.0;
+    private void avaliarOrigem(int current) {
+        double melhorDeltaCusto = 0;
+        int melhorPod = -1;
+        int melhorNoDestino = -1;
         
-        // Soma os custos de abertura para todos os nós abertos
-        for (Node node : openedNodes) {
-            totalCost += node.getOpeningCost();
-        }
-        
-        // Soma os custos de alocação
-        for (Pod pod : pods) {
-            Node node = allocation.get(pod);
-            if (node != null) {
-                totalCost += node.getAllocationCost();
+        if (!nodes.get(current).getPods().isEmpty()) {
+            for (int target = 0; target < nodes.size(); target++) {
+                if (target == current) {
+                    continue;
+                }
+                
+                double deltaCost = calcularVariacaoCusto(current, target);
+                if (deltaCost >= 0 || deltaCost > melhorDeltaCusto) {
+                    continue;
+                }
+                
+                int pod = sizeClasses.findFirstPodFitting(current, nodes.get(target).getResidualCapacity());
+                if (pod >= 0 && (deltaCost < melhorDeltaCusto || pod < melhorPod)) {
+                    melhorDeltaCusto = deltaCost;
+                    melhorPod = pod;
+                    melhorNoDestino = target;
+                }
             }
         }
         
-        return totalCost;
+        if (melhorPod >= 0) {
+            gainCache.set(current, melhorDeltaCusto, melhorPod, melhorNoDestino);
+        } else {
+            gainCache.remove(current);
+        }
     }
     
     /**
-     * Retorna o número de nós abertos na solução
+     * Um movimento de a para b só altera esses dois nós: as origens a e b são
+     * recalculadas; para as demais basta reavaliar os destinos a e b. Se o melhor
+     * movimento guardado era para a ou b e piorou, a origem é recalculada inteira
      */
-    public int getOpenedNodesCount() {
-        return openedNodes.size();
+    private void atualizarCache(int a, int b) {
+        avaliarOrigem(a);
+        avaliarOrigem(b);
+        
+        for (int current = 0; current < nodes.size(); current++) {
+            if (current == a || current == b || nodes.get(current).getPods().isEmpty()) {
+                continue;
+            }
+            
+            int target = gainCache.contains(current) ? gainCache.getTarget(current) : -1;
+            if (target != a && target != b) {
+                avaliarMovimento(current, a);
+                avaliarMovimento(current, b);
+                continue;
+            }
+            
+            // O movimento guardado continua o melhor se não piorou
+            double deltaCost = calcularVariacaoCusto(current, target);
+            int pod = deltaCost < 0 ? sizeClasses.findFirstPodFitting(current, nodes.get(target).getResidualCapacity()) : -1;
+            if (pod < 0 || MoveGainCache.isBetter(gainCache.getDelta(current), gainCache.getPod(current), target, deltaCost, pod, target)) {
+                avaliarOrigem(current);
+            } else {
+                gainCache.set(current, deltaCost, pod, target);
+                avaliarMovimento(current, target == a ? b : a);
+            }
+        }
     }
     
     /**
-     * Retorna todos os nós abertos na solução
+     * Move o pod para o nó de destino, atualizando nós abertos e contagens
      */
-    public TreeSet<Node> getOpenedNodes() {
-        return openedNodes;
+    private void aplicarMovimento(int podIndex, int target) {
+        Pod pod = pods.get(podIndex);
+        Node noAtual = nodes.get(allocation[podIndex]);
+        
+        // Remove o pod do nó atual
+        noAtual.removePod(pod);
+        sizeClasses.removePod(noAtual.getIndex(), podIndex);
+        
+        // Verifica se o nó atual ficou vazio
+        if (noAtual.getPods().isEmpty()) {
+            openedNodes.clear(noAtual.getIndex());
+        }
+        
+        // Adiciona o pod ao novo nó
+        nodes.get(target).allocatePod(pod);
+        sizeClasses.addPod(target, podIndex);
+        openedNodes.set(target);
+        
+        // Atualiza a alocação
+        allocation[podIndex] = target;
     }
     
     /**
-     * Retorna o mapeamento de alocação (pod -> nó)
+     * Executa a busca local com melhor melhoria
+     * 1. Para cada par (nó de origem, nó de destino), avalia mover um pod da origem
+     * 2. Seleciona o movimento que resulta na maior redução de custo
+     * 3. Repete até que não haja mais melhorias possíveis
+     * Como a variação de custo só depende do par de nós, a vizinhança é avaliada por
+     * par e classe de tamanho. O melhor movimento de cada origem fica no MoveGainCache
+     * e, após cada movimento, só as entradas afetadas pelos dois nós alterados são
+     * reavaliadas. O pod movido é o de menor índice que cabe no destino, o mesmo que a
+     * varredura pod a pod escolheria
+     * Com setFirstImprovement(true) usa a estratégia de primeira melhoria
      */
-    public HashMap<Pod, Node> getAllocation() {
-        return allocation;
-    }
-}
-
-/**
- * Implementação da Busca Local com Melhor Melhoria para o escalonamento de pods
- * Baseada no algoritmo descrito no artigo que modela o problema como CFLP
- */
-class LocalSearch {
-    private List<Node> nodes;
-    private List<Pod> pods;
-    private HashMap<Pod, Node> allocation;
-    private TreeSet<Node> openedNodes;
-    
-    public LocalSearch(List<Node> nodes, List<Pod> pods, HashMap<Pod, Node> initialAllocation, TreeSet<Node> initialOpenedNodes) {
-        this.nodes = nodes;
-        this.pods = pods;
-        this.allocation = new HashMap<>(initialAllocation);
-        this.openedNodes = new TreeSet<>(initialOpenedNodes);
+    public void execute() {
+        evaluations = 0;
+        if (firstImprovement) {
+            executarPrimeiraMelhoria();
+            return;
+        }
         
-        // Aplicar a alocação inicial aos nós
-        for (Node node : nodes) {
-            node.clear();
+        converged = false;
+        gainCache.clear();
+        for (int current = 0; current < nodes.size(); current++) {
+            if (budget != null && budget.isExpired()) {
+                return;
+            }
+            avaliarOrigem(current);
         }
         
-        for (Pod pod : pods) {
-            Node node = allocation.get(pod);
-            if (node != null) {
-                node.allocatePod(pod);
+        // Custo corrente, mantido só para comparar com o custo alvo
+        double custo = budget != null ? calculateTotalCost() : 0.0;
+        
+        // Enquanto houver movimento de melhoria, aplica o melhor
+        while (!gainCache.isEmpty()) {
+            if (budget != null && (budget.isExpired() || budget.isTargetReached(custo))) {
+                return;
             }
+            
+            int current = gainCache.peek();
+            int target = gainCache.getTarget(current);
+            custo += gainCache.getDelta(current);
+            
+            aplicarMovimento(gainCache.getPod(current), target);
+            atualizarCache(current, target);
         }
+        converged = true;
     }
     
     /**
-     * Verifica se um nó tem capacidade suficiente para acomodar um pod
-     * considerando uma possível mudança na alocação atual
+     * Busca local com primeira melhoria
+     * Percorre os pods em ordem circular e aplica o primeiro movimento de melhoria
+     * encontrado para o pod (destinos em ordem crescente de índice); a varredura
+     * continua do pod seguinte. Termina quando uma volta completa não encontra
+     * melhoria. Com setShuffle a ordem dos pods é embaralhada a cada volta
+     * Bits "não olhe": um pod sem movimento de melhoria é marcado com a versão atual
+     * do seu nó e pulado enquanto essa versão não mudar. A versão de um nó muda quando
+     * ele próprio muda, ou quando um nó para o qual os seus pods poderiam ir ganha
+     * capacidade, fecha ou é aberto com variação de custo negativa (ver liberarPods). Um pod
+     * marcado não teria movimento de melhoria, então o caminho da busca é o mesmo
      */
-    private boolean temCapacidadeSuficiente(Node node, Pod pod, Node currentNode) {
-        // Se o nó atual é o mesmo para onde queremos mover, não precisa verificar
-        if (node.equals(currentNode)) {
-            return true;
+    private void executarPrimeiraMelhoria() {
+        converged = false;
+        int numPods = allocation.length;
+        int[] ordem = new int[numPods];
+        for (int j = 0; j < numPods; j++) {
+            ordem[j] = j;
         }
+        int[] versaoNo = new int[nodes.size()];
+        int[] versaoPod = new int[numPods]; // versão do nó quando o pod foi marcado
+        Arrays.fill(versaoPod, -1);
         
-        int usedCapacity = 0;
+        // Custo corrente, mantido só para comparar com o custo alvo
+        double custo = budget != null ? calculateTotalCost() : 0.0;
         
-        // Calcula a capacidade já utilizada pelos pods alocados a este nó
-        for (Pod allocatedPod : node.getPods()) {
-            // Não contar o pod que estamos tentando mover (caso ele já esteja neste nó)
-            if (!allocatedPod.equals(pod)) {
-                usedCapacity += allocatedPod.getResourceUsage();
+        int posicao = 0;
+        int semMelhoria = 0; // pods seguidos sem movimento de melhoria
+        while (semMelhoria < numPods) {
+            if (budget != null && (budget.isExpired() || budget.isTargetReached(custo))) {
+                return;
             }
+            
+            // Nova volta: embaralha a ordem. Uma volta inteira sem melhoria é exigida
+            // para parar, já que a ordem muda entre as voltas
+            if (posicao == 0 && shuffleRandom != null) {
+                embaralhar(ordem);
+                semMelhoria = 0;
+            }
+            
+            int pod = ordem[posicao];
+            posicao = posicao + 1 == numPods ? 0 : posicao + 1;
+            
+            int current = allocation[pod];
+            if (current < 0 || versaoPod[pod] == versaoNo[current]) {
+                semMelhoria++;
+                continue;
+            }
+            
+            int target = procurarPrimeiraMelhoria(pod, current);
+            if (target < 0) {
+                versaoPod[pod] = versaoNo[current];
+                semMelhoria++;
+                continue;
+            }
+            
+            boolean targetAberto = openedNodes.get(target);
+            custo += variacaoEncontrada;
+            aplicarMovimento(pod, target);
+            versaoPod[pod] = -1; // a marca era de uma versão do nó de origem
+            liberarPods(current, target, !targetAberto, versaoNo);
+            semMelhoria = 0;
         }
-        
-        // Verifica se há espaço suficiente para o novo pod
-        return (usedCapacity + pod.getResourceUsage() <= node.getCapacity());
+        converged = true;
     }
     
     /**
-     * Calcula a variação de custo ao mover um pod de um nó para outro
+     * Primeiro destino para o qual mover o pod melhora a solução, ou -1. A variação
+     * de custo do movimento fica em variacaoEncontrada
      */
-    private double calcularVariacaoCusto(Pod pod, Node currentNode, Node newNode) {
-        double deltaCost = 0.0;
-        
-        // Remover custo da alocação atual
-        deltaCost -= currentNode.getAllocationCost();
-        
-        // Adicionar custo da nova alocação
-        deltaCost += newNode.getAllocationCost();
-        
-        // Se o nó atual ficará vazio, remover seu custo de abertura
-        boolean currentNodeWillBeEmpty = currentNode.getPods().size() == 1 && currentNode.getPods().contains(pod);
-        if (currentNodeWillBeEmpty) {
-            deltaCost -= currentNode.getOpeningCost();
-        }
-        
-        // Se o novo nó não está aberto, adicionar seu custo de abertura
-        if (!openedNodes.contains(newNode)) {
-            deltaCost += newNode.getOpeningCost();
+    private int procurarPrimeiraMelhoria(int pod, int current) {
+        int size = pods.get(pod).getResourceUsage();
+        for (int target = 0; target < nodes.size(); target++) {
+            if (target == current) {
+                continue;
+            }
+            
+            double deltaCost = calcularVariacaoCusto(current, target);
+            if (deltaCost < 0 && size <= nodes.get(target).getResidualCapacity()) {
+                variacaoEncontrada = deltaCost;
+                return target;
+            }
         }
-        
-        return deltaCost;
+        return -1;
     }
     
     /**
-     * Executa a busca local com melhor melhoria
-     * 1. Para cada pod, tenta movê-lo para todos os outros nós
-     * 2. Seleciona o movimento que resulta na maior redução de custo
-     * 3. Repete até que não haja mais melhorias possíveis
+     * Após mover um pod de a para b, invalida os bits "não olhe" dos nós cujos pods
+     * podem ter ganhado um movimento de melhoria: a e b; os nós com variação negativa
+     * para a, que ganhou capacidade (se a fechou, vazio, ele cabe pods que antes não
+     * cabiam, e a variação já inclui a reabertura); e, se b acabou de abrir, os nós
+     * com variação negativa para b. Nos demais destinos nada mudou, e b só perdeu
+     * capacidade
      */
-    public void execute() {
-        boolean melhorou = true;
-        
-        while (melhorou) {
-            melhorou = false;
-            double melhorDeltaCusto = 0;
-            Pod melhorPod = null;
-            Node melhorNoDestino = null;
-            Node noAtual = null;
-            
-            // Para cada pod
-            for (Pod pod : pods) {
-                Node currentNode = allocation.get(pod);
-                
-                // Se o pod não está alocado, continua
-                if (currentNode == null) {
-                    continue;
-                }
-                
-                // Tenta mover para cada outro nó
-                for (Node newNode : nodes) {
-                    // Não testar o mesmo nó
-                    if (newNode.equals(currentNode)) {
-                        continue;
-                    }
-                    
-                    // Verifica se o novo nó tem capacidade
-                    if (temCapacidadeSuficiente(newNode, pod, currentNode)) {
-                        // Calcula a variação de custo
-                        double deltaCost = calcularVariacaoCusto(pod, currentNode, newNode);
-                        
-                        // Se encontrou uma melhoria melhor
-                        if (deltaCost < melhorDeltaCusto) {
-                            melhorDeltaCusto = deltaCost;
-                            melhorPod = pod;
-                            melhorNoDestino = newNode;
-                            noAtual = currentNode;
-                        }
-                    }
-                }
+    private void liberarPods(int a, int b, boolean bAbriu, int[] versaoNo) {
+        versaoNo[a]++;
+        versaoNo[b]++;
+        for (int source = 0; source < nodes.size(); source++) {
+            if (source == a || source == b || nodes.get(source).getPods().isEmpty()) {
+                continue;
             }
-            
-            // Se encontrou uma melhoria, aplica a mudança
-            if (melhorDeltaCusto < 0 && melhorPod != null && melhorNoDestino != null) {
-                melhorou = true;
-                
-                // Remove o pod do nó atual
-                noAtual.getPods().remove(melhorPod);
-                
-                // Verifica se o nó atual ficou vazio
-                if (noAtual.getPods().isEmpty()) {
-                    openedNodes.remove(noAtual);
-                }
-                
-                // Adiciona o pod ao novo nó
-                melhorNoDestino.allocatePod(melhorPod);
-                openedNodes.add(melhorNoDestino);
-                
-                // Atualiza a alocação
-                allocation.put(melhorPod, melhorNoDestino);
+            if (calcularVariacaoCusto(source, a) < 0 || (bAbriu && calcularVariacaoCusto(source, b) < 0)) {
+                versaoNo[source]++;
             }
         }
     }
     
+    // Fisher-Yates
+    private void embaralhar(int[] ordem) {
+        for (int k = ordem.length - 1; k > 0; k--) {
+            int r = shuffleRandom.nextInt(k + 1);
+            int tmp = ordem[k];
+            ordem[k] = ordem[r];
+            ordem[r] = tmp;
+        }
+    }
+    
+    /**
+     * Escolhe entre melhor melhoria (padrão) e primeira melhoria
+     */
+    public void setFirstImprovement(boolean firstImprovement) {
+        this.firstImprovement = firstImprovement;
+    }
+    
+    /**
+     * Na primeira melhoria, embaralha a ordem dos pods a cada volta (null = ordem fixa)
+     */
+    public void setShuffle(SplittableRandom shuffleRandom) {
+        this.shuffleRandom = shuffleRandom;
+    }
+    
+    /**
+     * Avaliações de variação de custo feitas na última execução
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+    
+    /**
+     * Limita a busca por prazo, custo alvo ou cancelamento. Como todo movimento
+     * aplicado é de melhoria, ao parar antes do ótimo local o estado atual já é a
+     * melhor solução encontrada
+     */
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget;
+    }
+    
+    /**
+     * Indica se a última execução chegou a um ótimo local (false se o limite a interrompeu)
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+    
     /**
      * Calcula o custo total da solução após a busca local
      */
@@ -382,15 +398,14 @@ class LocalSearch {
         double totalCost = 0.0;
         
         // Soma os custos de abertura para todos os nós abertos
-        for (Node node : openedNodes) {
-            totalCost += node.getOpeningCost();
+        for (int i = openedNodes.nextSetBit(0); i >= 0; i = openedNodes.nextSetBit(i + 1)) {
+            totalCost += openingCosts[i];
         }
         
         // Soma os custos de alocação
-        for (Pod pod : pods) {
-            Node node = allocation.get(pod);
-            if (node != null) {
-                totalCost += node.getAllocationCost();
+        for (int node : allocation) {
+            if (node >= 0) {
+                totalCost += allocationCosts[node];
             }
         }
         
@@ -401,20 +416,20 @@ class LocalSearch {
      * Retorna o número de nós abertos na solução
      */
     public int getOpenedNodesCount() {
-        return openedNodes.size();
+        return openedNodes.cardinality();
     }
     
     /**
      * Retorna todos os nós abertos na solução
      */
-    public TreeSet<Node> getOpenedNodes() {
+    public BitSet getOpenedNodes() {
         return openedNodes;
     }
     
     /**
-     * Retorna o mapeamento de alocação (pod -> nó)
+     * Retorna o vetor de alocação (índice do pod -> índice do nó, -1 se não alocado)
      */
-    public HashMap<Pod, Node> getAllocation() {
+    public int[] getAllocation() {
         return allocation;
     }
 }
@@ -424,12 +439,22 @@ public class LocalSearchScheduler {
         int[] tamanhosPods = {10, 50, 100, 200, 500, 1000, 5000, 10000};
         int[] tamanhosNodes = {5, 10, 20, 50, 100, 200};
         int numberExecutions = 10;
+        double gapTolerance = 0.05; // Stop when the cost is within 5% of the LP bound
 
         FileWriter writerHeuristic = new FileWriter(new File("greedy_heuristic.csv"));
         FileWriter writerLocalSearch = new FileWriter(new File("local_search.csv"));
         
         writerHeuristic.write("number of pods; number of nodes; solution cost; time (ms) \n");
-        writerLocalSearch.write("number of pods; number of nodes; solution cost; time (ms) \n");
+        writerLocalSearch.write("number of pods; number of nodes; solution cost; time (ms); gap \n");
+
+        // Benchmark of the local search strategies (same greedy start)
+        FileWriter writerStrategies = new FileWriter(new File("local_search_strategies.csv"));
+        writerStrategies.write("number of pods; number of nodes; best cost; best time (ms); best evaluations; "
+                + "first cost; first time (ms); first evaluations; shuffled first cost; shuffled first time (ms); shuffled first evaluations \n");
+
+        // Best improvement stopped by the LP-relaxation bound (same greedy start)
+        FileWriter writerBound = new FileWriter(new File("local_search_lp_bound.csv"));
+        writerBound.write("number of pods; number of nodes; lower bound; solution cost; gap; evaluations; time (ms) \n");
 
         // Set the global random seed to 100 for reproducibility
         Random globalRandom = new Random(100);
@@ -444,42 +469,16 @@ public class LocalSearchScheduler {
 
                 System.out.println("Total pods: " + numPods + " and Total Nodes: " + numNodes);
 
-                // Create the data structures and generate random data.
-                List<Node> nodes = new ArrayList<>(numNodes);
-                List<Pod> pods = new ArrayList<>(numPods);
-
-                int capacityMin = numPods / numNodes + 1; // Specify the minimum node capacity
-                int capacityMax = numPods * 2; // Specify the maximum node capacity
-
-                int resourceUsageMin = 1; // Specify the minimum pod size
-                int resourceUsageMax = 10; // Specify the maximum pod size
-
-                int openingCostInit = 1; // Specify the minimum cost per unit opening node 
-                int openingCostEnd = 4 * numNodes; // Specify the maximum cost per unit opening node 
+                // Create the instance using random data with fixed seed for reproducibility
+                ProblemInstance instance = ProblemInstance.generate(numPods, numNodes, new Random(100));
+                List<Node> nodes = instance.getNodes();
 
-                int allocatingCostInit = 1; // Specify the minimum cost per unit allocation cost 
-                int allocatingCostEnd = 4 * numNodes; // Specify the maximum cost per unit allocation cost 
-
-                // Create nodes using random data with fixed seed for reproducibility
-                Random random = new Random(100);
-                for (int i = 0; i < numNodes; i++) {
-                    int capacity = random.nextInt(capacityMax - capacityMin + 1) + capacityMin;
-                    double openingCost = random.nextInt(openingCostEnd - openingCostInit + 1) + openingCostInit;
-                    double allocationCost = random.nextInt(allocatingCostEnd - allocatingCostInit + 1) + allocatingCostInit;
-                    
-                    Node node = new Node(capacity, i, openingCost, allocationCost);
-                    nodes.add(node);
-                }
-
-                // Create pods using random data with fixed seed for reproducibility
-                for (int j = 0; j < numPods; j++) {
-                    int resourceUsage = random.nextInt(resourceUsageMax - resourceUsageMin + 1) + resourceUsageMin;
-                    Pod pod = new Pod(resourceUsage, j);
-                    pods.add(pod);
-                }
+                // Dual-ascent lower bound: the results below are reported with their optimality gap
+                DualAscent dual = new DualAscent(instance);
+                dual.execute();
 
                 // ====== Greedy Heuristic ======
-                GreedyHeuristic heuristic = new GreedyHeuristic(nodes, pods);
+                GreedyHeuristic heuristic = new GreedyHeuristic(instance);
 
                 // Measure execution time for Greedy Heuristic
                 long startTimeGreedy = System.currentTimeMillis();
@@ -511,17 +510,17 @@ public class LocalSearchScheduler {
                 
                 // ====== Local Search ======
                 // Use the greedy solution as a starting point for the local search
-                HashMap<Pod, Node> initialAllocation = new HashMap<>(heuristic.getAllocation());
-                TreeSet<Node> initialOpenedNodes = new TreeSet<>(heuristic.getOpenedNodes());
+                int[] initialAllocation = heuristic.getAllocation().clone();
+                BitSet initialOpenedNodes = (BitSet) heuristic.getOpenedNodes().clone();
                 
-                LocalSearch localSearch = new LocalSearch(nodes, pods, initialAllocation, initialOpenedNodes);
+                LocalSearch localSearch = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
                 
                 // Measure execution time for Local Search
                 long startTimeLocalSearch = System.currentTimeMillis();
                 
                 for (int i = 0; i < numberExecutions; i++) {
                     // Reset to initial greedy solution for each execution
-                    localSearch = new LocalSearch(nodes, pods, initialAllocation, initialOpenedNodes);
+                    localSearch = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
                     localSearch.execute();
                 }
                 
@@ -535,21 +534,82 @@ public class LocalSearchScheduler {
                 // Print results for Local Search
                 System.out.println("=== Local Search Results ===");
                 System.out.println("Used nodes: " + usedNodesLocalSearch);
-                System.out.println("Solution cost: " + totalCostLocalSearch);
+                System.out.println("Solution cost: " + totalCostLocalSearch + " (gap: "
+                        + String.format("%.2f", dual.getGap(totalCostLocalSearch) * 100) + "%)");
                 System.out.println("Time taken: " + elapsedTimeLocalSearch + " ms");
                 System.out.println("Improvement over Greedy: " + (totalCostGreedy - totalCostLocalSearch) + " (" + 
                         String.format("%.2f", ((totalCostGreedy - totalCostLocalSearch) / totalCostGreedy * 100)) + "%)");
                 
                 // Write to CSV for Local Search
-                writerLocalSearch.write(numPods + "; " + numNodes + "; " + totalCostLocalSearch + "; " + elapsedTimeLocalSearch + "\n");
+                writerLocalSearch.write(numPods + "; " + numNodes + "; " + totalCostLocalSearch + "; " + elapsedTimeLocalSearch + "; "
+                        + dual.getGap(totalCostLocalSearch) + "\n");
                 writerLocalSearch.flush();
                 
+                // ====== Local Search strategies ======
+                long evaluationsBest = localSearch.getEvaluations();
+                
+                LocalSearch firstImprovement = null;
+                long startTimeFirst = System.currentTimeMillis();
+                for (int i = 0; i < numberExecutions; i++) {
+                    firstImprovement = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
+                    firstImprovement.setFirstImprovement(true);
+                    firstImprovement.execute();
+                }
+                long elapsedTimeFirst = (System.currentTimeMillis() - startTimeFirst) / numberExecutions;
+                
+                LocalSearch shuffledFirst = null;
+                long startTimeShuffled = System.currentTimeMillis();
+                for (int i = 0; i < numberExecutions; i++) {
+                    shuffledFirst = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
+                    shuffledFirst.setFirstImprovement(true);
+                    shuffledFirst.setShuffle(new SplittableRandom(100));
+                    shuffledFirst.execute();
+                }
+                long elapsedTimeShuffled = (System.currentTimeMillis() - startTimeShuffled) / numberExecutions;
+                
+                System.out.println("=== Local Search Strategies ===");
+                System.out.println("Best improvement: cost " + totalCostLocalSearch + ", " + evaluationsBest + " evaluations");
+                System.out.println("First improvement: cost " + firstImprovement.calculateTotalCost() + ", "
+                        + firstImprovement.getEvaluations() + " evaluations, " + elapsedTimeFirst + " ms");
+                System.out.println("Shuffled first improvement: cost " + shuffledFirst.calculateTotalCost() + ", "
+                        + shuffledFirst.getEvaluations() + " evaluations, " + elapsedTimeShuffled + " ms");
+                
+                writerStrategies.write(numPods + "; " + numNodes + "; "
+                        + totalCostLocalSearch + "; " + elapsedTimeLocalSearch + "; " + evaluationsBest + "; "
+                        + firstImprovement.calculateTotalCost() + "; " + elapsedTimeFirst + "; " + firstImprovement.getEvaluations() + "; "
+                        + shuffledFirst.calculateTotalCost() + "; " + elapsedTimeShuffled + "; " + shuffledFirst.getEvaluations() + "\n");
+                writerStrategies.flush();
+                
+                // ====== Local Search with LP-bound early termination ======
+                LpBound bound = new LpBound(instance);
+                
+                LocalSearch boundedSearch = null;
+                long startTimeBound = System.currentTimeMillis();
+                for (int i = 0; i < numberExecutions; i++) {
+                    bound.execute();
+                    boundedSearch = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
+                    boundedSearch.setBudget(SearchBudget.ofTargetCost(bound.getTargetCost(gapTolerance)));
+                    boundedSearch.execute();
+                }
+                long elapsedTimeBound = (System.currentTimeMillis() - startTimeBound) / numberExecutions;
+                
+                double boundedCost = boundedSearch.calculateTotalCost();
+                System.out.println("LP bound: " + bound.getLowerBound() + ", early-terminated best improvement: cost "
+                        + boundedCost + " (gap: " + String.format("%.2f", bound.getGap(boundedCost) * 100) + "%), "
+                        + boundedSearch.getEvaluations() + " evaluations, " + elapsedTimeBound + " ms");
+                
+                writerBound.write(numPods + "; " + numNodes + "; " + bound.getLowerBound() + "; " + boundedCost + "; "
+                        + bound.getGap(boundedCost) + "; " + boundedSearch.getEvaluations() + "; " + elapsedTimeBound + "\n");
+                writerBound.flush();
+                
                 System.out.println("=============================\n");
             }
         }
 
         writerHeuristic.close();
         writerLocalSearch.close();
+        writerStrategies.close();
+        writerBound.close();
         System.out.println("CSV files written successfully");
     }
 }
\ No newline at end of file
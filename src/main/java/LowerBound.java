@@ -0,0 +1,30 @@
+/**
+ * Limite inferior do custo de qualquer solução que aloque todos os pods, com o gap
+ * de otimalidade e o custo alvo derivados dele (LpBound, DualAscent)
+ */
+interface LowerBound {
+    /**
+     * Limite inferior (+infinito se a capacidade total não comportar os pods)
+     */
+    double getLowerBound();
+
+    /**
+     * Gap de otimalidade de uma solução de custo cost: (cost - LB) / cost
+     */
+    default double getGap(double cost) {
+        return cost <= 0 ? 0.0 : Math.max(0.0, (cost - getLowerBound()) / cost);
+    }
+
+    /**
+     * Custo a partir do qual o gap fica menor ou igual a gap, para usar como custo
+     * alvo de um SearchBudget. Se a instância for inviável (limite +infinito) retorna
+     * -infinito, que é sem alvo
+     */
+    default double getTargetCost(double gap) {
+        double lowerBound = getLowerBound();
+        if (lowerBound == Double.POSITIVE_INFINITY) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return lowerBound / (1.0 - gap);
+    }
+}
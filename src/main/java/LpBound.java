@@ -0,0 +1,111 @@
+import java.util.Arrays;
+
+/**
+ * Limite inferior da relaxação linear do modelo do CustomMain, calculado em forma
+ * fechada (sem solver)
+ * Como o custo de alocação depende só do nó e a capacidade tem uma só dimensão, a
+ * relaxação é agregada por nó: o nó i recebe L_i unidades de capacidade (L_i <= U_i,
+ * soma igual à demanda total D) e P_i pods, com L_i / maiorTamanho <= P_i <=
+ * L_i / menorTamanho. A abertura fracionária custa f_i / U_i por unidade e cada pod
+ * custa c_i. Relaxando a contagem de pods (soma P_i = n) com um multiplicador
+ * lambda, cada unidade em i custa
+ *   e_i(lambda) = f_i / U_i + (c_i - lambda) / maiorTamanho, se c_i >= lambda
+ *   e_i(lambda) = f_i / U_i + (c_i - lambda) / menorTamanho, caso contrário
+ * e o problema vira uma mochila fracionária: ordenar os nós por e_i e encher D
+ * unidades (O(N log N)). O limite g(lambda) = lambda · n + custo da mochila é
+ * côncavo em lambda, com máximo entre o menor e o maior custo de alocação, e é
+ * maximizado por busca ternária
+ */
+class LpBound implements LowerBound {
+    private int numNodes;
+    private int[] capacities;
+    private double[] openingCosts;
+    private double[] allocationCosts;
+    private int numPods;
+    private long demanda;
+    private int menorTamanho;
+    private int maiorTamanho;
+    private double[] custoUnitario;
+    private Integer[] ordem;
+    private double lowerBound;
+
+    // Iterações da busca ternária em lambda
+    private static final int SEARCH_STEPS = 60;
+
+    public LpBound(ProblemInstance instance) {
+        this.numNodes = instance.getNumNodes();
+        this.capacities = instance.getCapacities();
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.numPods = instance.getNumPods();
+        int[] sizes = instance.getSizeClasses();
+        int[] sizeClassStarts = instance.getSizeClassStarts();
+        for (int c = 0; c < sizes.length; c++) {
+            demanda += (long) (sizeClassStarts[c + 1] - sizeClassStarts[c]) * sizes[c];
+        }
+        this.menorTamanho = sizes.length == 0 ? 1 : sizes[0];
+        this.maiorTamanho = sizes.length == 0 ? 1 : sizes[sizes.length - 1];
+        this.custoUnitario = new double[numNodes];
+        this.ordem = new Integer[numNodes];
+    }
+
+    /**
+     * Calcula o limite
+     */
+    public void execute() {
+        if (numPods == 0) {
+            lowerBound = 0.0;
+            return;
+        }
+        double a = Double.POSITIVE_INFINITY;
+        double b = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numNodes; i++) {
+            a = Math.min(a, allocationCosts[i]);
+            b = Math.max(b, allocationCosts[i]);
+        }
+
+        for (int passo = 0; passo < SEARCH_STEPS; passo++) {
+            double m1 = a + (b - a) / 3;
+            double m2 = b - (b - a) / 3;
+            if (calcularLimite(m1) < calcularLimite(m2)) {
+                a = m1;
+            } else {
+                b = m2;
+            }
+        }
+        lowerBound = calcularLimite((a + b) / 2);
+    }
+
+    /**
+     * g(lambda): lambda · n mais a mochila fracionária das D unidades nos nós
+     * ordenados por custo unitário (+infinito se a capacidade total não comportar D)
+     */
+    private double calcularLimite(double lambda) {
+        for (int i = 0; i < numNodes; i++) {
+            double custoPod = allocationCosts[i] - lambda;
+            custoUnitario[i] = openingCosts[i] / capacities[i]
+                    + custoPod / (custoPod >= 0 ? maiorTamanho : menorTamanho);
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, (x, y) -> Double.compare(custoUnitario[x], custoUnitario[y]));
+
+        double limite = lambda * numPods;
+        long restante = demanda;
+        for (int k = 0; k < numNodes && restante > 0; k++) {
+            int i = ordem[k];
+            long unidades = Math.min(restante, capacities[i]);
+            limite += unidades * custoUnitario[i];
+            restante -= unidades;
+        }
+        return restante > 0 ? Double.POSITIVE_INFINITY : limite;
+    }
+
+    /**
+     * Limite inferior do custo de qualquer solução que aloque todos os pods
+     * (+infinito se a capacidade total não comportar os pods)
+     */
+    @Override
+    public double getLowerBound() {
+        return lowerBound;
+    }
+}
@@ -0,0 +1,172 @@
+import java.util.Arrays;
+
+/**
+ * Cache do melhor movimento de cada nó de origem na busca local
+ * Os movimentos ficam em um heap indexado pelo nó de origem: o melhor movimento
+ * global é consultado em O(1) e cada atualização custa O(log N)
+ * A ordem é (variação de custo, índice do pod, índice do destino), a mesma em que
+ * a varredura completa escolheria o movimento
+ * Também serve como fila de prioridade de nós (set(key, priority)): a menor
+ * prioridade sai primeiro e empates ficam com o menor índice
+ */
+class MoveGainCache {
+    private double[] deltas;
+    private int[] podsToMove;
+    private int[] targets;
+    private int[] heap;     // nós de origem ordenados pelo melhor movimento
+    private int[] position; // posição de cada nó no heap (-1 se ausente)
+    private int size;
+
+    public MoveGainCache(int numNodes) {
+        this.deltas = new double[numNodes];
+        this.podsToMove = new int[numNodes];
+        this.targets = new int[numNodes];
+        this.heap = new int[numNodes];
+        this.position = new int[numNodes];
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(position, -1);
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int source) {
+        return position[source] >= 0;
+    }
+
+    /**
+     * Nó de origem com o melhor movimento, ou -1 se não houver movimento
+     */
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    public double getDelta(int source) {
+        return deltas[source];
+    }
+
+    public int getPod(int source) {
+        return podsToMove[source];
+    }
+
+    public int getTarget(int source) {
+        return targets[source];
+    }
+
+    /**
+     * Verifica se o movimento (delta, pod, target) é melhor que o guardado para a origem
+     */
+    public boolean isBetter(int source, double delta, int pod, int target) {
+        if (!contains(source)) {
+            return true;
+        }
+        return isBetter(delta, pod, target, deltas[source], podsToMove[source], targets[source]);
+    }
+
+    /**
+     * Compara dois movimentos na ordem (variação de custo, pod, destino)
+     */
+    public static boolean isBetter(double deltaA, int podA, int targetA, double deltaB, int podB, int targetB) {
+        if (deltaA != deltaB) {
+            return deltaA < deltaB;
+        }
+        if (podA != podB) {
+            return podA < podB;
+        }
+        return targetA < targetB;
+    }
+
+    /**
+     * Define (ou substitui) o melhor movimento da origem
+     */
+    public void set(int source, double delta, int pod, int target) {
+        deltas[source] = delta;
+        podsToMove[source] = pod;
+        targets[source] = target;
+
+        if (position[source] < 0) {
+            heap[size] = source;
+            position[source] = size;
+            size++;
+        }
+        siftUp(position[source]);
+        siftDown(position[source]);
+    }
+
+    /**
+     * Define (ou substitui) a prioridade do nó, sem movimento associado
+     */
+    public void set(int key, double priority) {
+        set(key, priority, 0, key);
+    }
+
+    /**
+     * Prioridade guardada para o nó (o delta, quando há movimento associado)
+     */
+    public double getPriority(int key) {
+        return deltas[key];
+    }
+
+    /**
+     * Remove a origem do cache (não há movimento de melhoria a partir dela)
+     */
+    public void remove(int source) {
+        int p = position[source];
+        if (p < 0) {
+            return;
+        }
+
+        size--;
+        position[source] = -1;
+        if (p < size) {
+            int moved = heap[size];
+            heap[p] = moved;
+            position[moved] = p;
+            siftUp(p);
+            siftDown(position[moved]);
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return isBetter(deltas[a], podsToMove[a], targets[a], deltas[b], podsToMove[b], targets[b]);
+    }
+
+    private void siftUp(int p) {
+        while (p > 0) {
+            int parent = (p - 1) / 2;
+            if (!less(heap[p], heap[parent])) {
+                break;
+            }
+            swap(p, parent);
+            p = parent;
+        }
+    }
+
+    private void siftDown(int p) {
+        while (true) {
+            int left = 2 * p + 1;
+            if (left >= size) {
+                break;
+            }
+            int child = left + 1 < size && less(heap[left + 1], heap[left]) ? left + 1 : left;
+            if (!less(heap[child], heap[p])) {
+                break;
+            }
+            swap(p, child);
+            p = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+        position[heap[a]] = a;
+        position[heap[b]] = b;
+    }
+}
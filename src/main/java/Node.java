@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Visão de um nó sobre os arrays da ProblemInstance
+ * Apenas o estado da solução (pods alocados e uso atual) fica no objeto
+ */
+class Node implements Comparable<Node> {
+    private final ProblemInstance instance;
+    private final int index;
+    private List<Pod> pods;
+    private List<Pod> podsView;
+    private int currentUsage;
+
+    public Node(ProblemInstance instance, int index) {
+        this.instance = instance;
+        this.index = index;
+        this.pods = new ArrayList<>();
+        this.podsView = Collections.unmodifiableList(pods);
+        this.currentUsage = 0;
+    }
+
+    public int getCapacity() {
+        return instance.getCapacity(index);
+    }
+
+    public int getCurrentUsage() {
+        return currentUsage;
+    }
+
+    /**
+     * Capacidade livre do nó, mantida incrementalmente por allocatePod, removePod e clear
+     */
+    public int getResidualCapacity() {
+        return getCapacity() - currentUsage;
+    }
+
+    public double getOpeningCost() {
+        return instance.getOpeningCost(index);
+    }
+
+    public double getAllocationCost() {
+        return instance.getAllocationCost(index);
+    }
+
+    public boolean canAllocatePod(Pod pod) {
+        return pod.getResourceUsage() <= getResidualCapacity();
+    }
+
+    /**
+     * Aloca o pod neste nó. Se ele já estiver aqui nada muda; se estiver em outro nó,
+     * sai de lá antes de entrar, para que nenhum nó conte o pod duas vezes
+     */
+    public void allocatePod(Pod pod) {
+        Node atual = pod.getAllocatedNode();
+        if (atual == this) {
+            return;
+        }
+        if (atual != null) {
+            atual.removePod(pod);
+        }
+        pods.add(pod);
+        currentUsage += pod.getResourceUsage();
+        pod.setAllocatedNode(this);
+    }
+
+    public void removePod(Pod pod) {
+        if (pods.remove(pod)) {
+            currentUsage -= pod.getResourceUsage();
+            if (pod.getAllocatedNode() == this) {
+                pod.setAllocatedNode(null);
+            }
+        }
+    }
+
+    /**
+     * Retorna os pods alocados (somente leitura, para manter o uso atual consistente)
+     */
+    public List<Pod> getPods() {
+        return podsView;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void clear() {
+        for (Pod pod : pods) {
+            if (pod.getAllocatedNode() == this) {
+                pod.setAllocatedNode(null);
+            }
+        }
+        pods.clear();
+        currentUsage = 0;
+    }
+
+    public int compareTo(Node nodeTemp) {
+        return Integer.compare(this.index, nodeTemp.index);
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Contagem de pods por (nó, classe de tamanho) para as buscas locais
+ * O custo de mover um pod depende só dos nós de origem e destino; o pod em si só
+ * importa para a viabilidade (seu tamanho). Com estas contagens a vizinhança pode
+ * ser avaliada por par de nós em vez de por pod
+ * Para cada (nó, classe) também é mantido o menor índice de pod, o que permite
+ * reproduzir exatamente a escolha da varredura pod a pod em caso de empate. Os
+ * índices ficam em heaps com remoção preguiçosa: um pod que saiu do nó só é
+ * descartado quando chega ao topo
+ */
+class NodeSizeClasses {
+    private int numClasses;
+    private int[] sizeClasses;
+    private int[] podSizeClasses;
+    private int[] podNodes;    // nó atual de cada pod (-1 = não alocado)
+    private int[] counts;      // counts[node * numClasses + c]
+    private int[][] heaps;     // heaps[node * numClasses + c]: índices de pods (mínimo no topo)
+    private int[] heapSizes;
+
+    public NodeSizeClasses(ProblemInstance instance) {
+        this.sizeClasses = instance.getSizeClasses();
+        this.podSizeClasses = instance.getPodSizeClasses();
+        this.numClasses = sizeClasses.length;
+        this.podNodes = new int[instance.getNumPods()];
+        this.counts = new int[instance.getNumNodes() * numClasses];
+        this.heaps = new int[instance.getNumNodes() * numClasses][];
+        this.heapSizes = new int[instance.getNumNodes() * numClasses];
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(podNodes, -1);
+        Arrays.fill(counts, 0);
+        Arrays.fill(heapSizes, 0);
+    }
+
+    /**
+     * Reconstrói as contagens a partir dos pods atualmente alocados em cada nó
+     */
+    public void load(List<Node> nodes) {
+        clear();
+        for (Node node : nodes) {
+            for (Pod pod : node.getPods()) {
+                addPod(node.getIndex(), pod.getIndex());
+            }
+        }
+    }
+
+    /**
+     * Reconstrói as contagens a partir de um estado de solução
+     */
+    public void load(SolutionState state) {
+        clear();
+        int[] allocation = state.getAllocation();
+        for (int j = 0; j < allocation.length; j++) {
+            if (allocation[j] >= 0) {
+                addPod(allocation[j], j);
+            }
+        }
+    }
+
+    public void addPod(int node, int pod) {
+        int k = node * numClasses + podSizeClasses[pod];
+        counts[k]++;
+        podNodes[pod] = node;
+        push(k, pod);
+    }
+
+    public void removePod(int node, int pod) {
+        counts[node * numClasses + podSizeClasses[pod]]--;
+        podNodes[pod] = -1;
+    }
+
+    public int getNumClasses() {
+        return numClasses;
+    }
+
+    public int getCount(int node, int sizeClass) {
+        return counts[node * numClasses + sizeClass];
+    }
+
+    /**
+     * Menor índice de pod da classe no nó, ou -1 se não houver
+     */
+    public int getFirstPod(int node, int sizeClass) {
+        int k = node * numClasses + sizeClass;
+        if (counts[k] == 0) {
+            heapSizes[k] = 0;
+            return -1;
+        }
+
+        // Descarta do topo os pods que já saíram do nó
+        int[] heap = heaps[k];
+        while (podNodes[heap[0]] != node) {
+            pop(k);
+        }
+        return heap[0];
+    }
+
+    /**
+     * Menor índice de pod do nó cujo tamanho cabe em capacity, ou -1 se não houver
+     */
+    public int findFirstPodFitting(int node, int capacity) {
+        int first = -1;
+        for (int c = 0; c < numClasses && sizeClasses[c] <= capacity; c++) {
+            int pod = getFirstPod(node, c);
+            if (pod >= 0 && (first < 0 || pod < first)) {
+                first = pod;
+            }
+        }
+        return first;
+    }
+
+    private void push(int k, int pod) {
+        if (heaps[k] == null) {
+            heaps[k] = new int[4];
+        } else if (heapSizes[k] == heaps[k].length) {
+            heaps[k] = Arrays.copyOf(heaps[k], 2 * heaps[k].length);
+        }
+
+        int[] heap = heaps[k];
+        int p = heapSizes[k]++;
+        while (p > 0 && heap[(p - 1) / 2] > pod) {
+            heap[p] = heap[(p - 1) / 2];
+            p = (p - 1) / 2;
+        }
+        heap[p] = pod;
+    }
+
+    private void pop(int k) {
+        int[] heap = heaps[k];
+        int size = --heapSizes[k];
+        int last = heap[size];
+        int p = 0;
+        while (2 * p + 1 < size) {
+            int child = 2 * p + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[p] = heap[child];
+            p = child;
+        }
+        heap[p] = last;
+    }
+}
@@ -0,0 +1,172 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Índice de consulta para a heurística gulosa: responde "nó mais barato com
+ * capacidade livre >= s" em O(log N)
+ * Mantém uma árvore para os nós abertos (ordenados pelo custo de alocação) e outra
+ * para os nós fechados (ordenados por abertura + alocação), ambas com o máximo da
+ * capacidade livre em cada subárvore. Empates seguem a ordem por custo de abertura
+ * usada pela varredura linear, então o nó escolhido é exatamente o mesmo
+ */
+class PlacementIndex {
+    private double[] openingCosts;
+    private double[] allocationCosts;
+    private int[] capacities;
+    private int[] rank; // posição do nó na ordem por custo de abertura
+    private int[] openedOrder;
+    private int[] closedOrder;
+    private int[] openedPosition;
+    private int[] closedPosition;
+    private MaxTree openedTree;
+    private MaxTree closedTree;
+
+    public PlacementIndex(ProblemInstance instance) {
+        this.openingCosts = instance.getOpeningCosts();
+        this.allocationCosts = instance.getAllocationCosts();
+        this.capacities = instance.getCapacities();
+
+        int numNodes = instance.getNumNodes();
+        int[] byOpeningCost = instance.getNodesByOpeningCost();
+        this.rank = new int[numNodes];
+        for (int r = 0; r < numNodes; r++) {
+            rank[byOpeningCost[r]] = r;
+        }
+
+        this.openedOrder = sortNodes(numNodes, Comparator.comparingDouble((Integer i) -> allocationCosts[i]));
+        this.closedOrder = sortNodes(numNodes, Comparator.comparingDouble((Integer i) -> 0.0 + openingCosts[i] + allocationCosts[i]));
+        this.openedPosition = positions(openedOrder);
+        this.closedPosition = positions(closedOrder);
+        this.openedTree = new MaxTree(numNodes);
+        this.closedTree = new MaxTree(numNodes);
+        reset();
+    }
+
+    private int[] sortNodes(int numNodes, Comparator<Integer> byCost) {
+        Integer[] order = new Integer[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, byCost.thenComparingInt(i -> rank[i]));
+
+        int[] result = new int[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private static int[] positions(int[] order) {
+        int[] position = new int[order.length];
+        for (int p = 0; p < order.length; p++) {
+            position[order[p]] = p;
+        }
+        return position;
+    }
+
+    /**
+     * Volta ao estado inicial: todos os nós fechados e vazios
+     */
+    public void reset() {
+        for (int i = 0; i < capacities.length; i++) {
+            openedTree.set(openedPosition[i], -1);
+            closedTree.set(closedPosition[i], capacities[i]);
+        }
+    }
+
+    /**
+     * Atualiza a capacidade livre e o estado (aberto/fechado) de um nó
+     */
+    public void update(int node, int residualCapacity, boolean opened) {
+        if (opened) {
+            openedTree.set(openedPosition[node], residualCapacity);
+            closedTree.set(closedPosition[node], -1);
+        } else {
+            openedTree.set(openedPosition[node], -1);
+            closedTree.set(closedPosition[node], residualCapacity);
+        }
+    }
+
+    /**
+     * Custo de alocar um pod ao nó, considerando a abertura se o nó estiver fechado
+     */
+    public double getCost(int node, boolean opened) {
+        double cost = 0.0;
+        if (!opened) {
+            cost += openingCosts[node];
+        }
+        cost += allocationCosts[node];
+        return cost;
+    }
+
+    /**
+     * Retorna o nó de menor custo com capacidade livre >= size, ou -1 se não houver
+     */
+    public int findBestNode(int size) {
+        int opened = openedTree.findFirst(size);
+        int closed = closedTree.findFirst(size);
+
+        if (opened < 0) {
+            return closed < 0 ? -1 : closedOrder[closed];
+        }
+        if (closed < 0) {
+            return openedOrder[opened];
+        }
+
+        int a = openedOrder[opened];
+        int b = closedOrder[closed];
+        return isBetter(a, true, b, false) ? a : b;
+    }
+
+    /**
+     * Verifica se o nó a é preferível ao nó b para a heurística gulosa:
+     * menor custo e, em caso de empate, o que vem antes na ordem por custo de abertura
+     */
+    public boolean isBetter(int a, boolean openedA, int b, boolean openedB) {
+        double costA = getCost(a, openedA);
+        double costB = getCost(b, openedB);
+        if (costA != costB) {
+            return costA < costB;
+        }
+        return rank[a] < rank[b];
+    }
+
+    /**
+     * Árvore de segmentos com o máximo de cada subárvore; -1 marca posição ausente
+     */
+    private static class MaxTree {
+        private int size;
+        private int[] tree;
+
+        MaxTree(int n) {
+            size = 1;
+            while (size < n) {
+                size <<= 1;
+            }
+            tree = new int[2 * size];
+            Arrays.fill(tree, -1);
+        }
+
+        void set(int position, int value) {
+            int p = position + size;
+            tree[p] = value;
+            for (p >>= 1; p >= 1; p >>= 1) {
+                tree[p] = Math.max(tree[2 * p], tree[2 * p + 1]);
+            }
+        }
+
+        /**
+         * Primeira posição (mais à esquerda) com valor >= value, ou -1
+         */
+        int findFirst(int value) {
+            if (tree[1] < value) {
+                return -1;
+            }
+            int p = 1;
+            while (p < size) {
+                p = tree[2 * p] >= value ? 2 * p : 2 * p + 1;
+            }
+            return p - size;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Visão de um pod sobre os arrays da ProblemInstance
+ */
+class Pod {
+    private final ProblemInstance instance;
+    private final int index;
+    private Node allocatedNode;
+
+    public Pod(ProblemInstance instance, int index) {
+        this.instance = instance;
+        this.index = index;
+        this.allocatedNode = null;
+    }
+
+    public int getResourceUsage() {
+        return instance.getResourceUsage(index);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Node getAllocatedNode() {
+        return allocatedNode;
+    }
+
+    public void setAllocatedNode(Node node) {
+        this.allocatedNode = node;
+    }
+
+    public boolean isAllocated() {
+        return allocatedNode != null;
+    }
+}
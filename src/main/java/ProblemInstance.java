@@ -0,0 +1,216 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Instância do problema de escalonamento de pods modelado como CFLP
+ * Os dados de nós e pods ficam em arrays primitivos (struct-of-arrays);
+ * Node e Pod são apenas visões indexadas sobre esses arrays
+ */
+class ProblemInstance {
+    private final int[] capacities;
+    private final double[] openingCosts;
+    private final double[] allocationCosts;
+    private final int[] resourceUsages;
+    private final int[] nodesByOpeningCost;
+    private final int[] nodesByAllocationCost;
+    private final int[] sizeClasses;
+    private final int[] podSizeClasses;
+    private final int[] podsBySizeClass;
+    private final int[] sizeClassStarts;
+    private final List<Node> nodes;
+    private final List<Pod> pods;
+
+    public ProblemInstance(int[] capacities, double[] openingCosts, double[] allocationCosts, int[] resourceUsages) {
+        this.capacities = capacities;
+        this.openingCosts = openingCosts;
+        this.allocationCosts = allocationCosts;
+        this.resourceUsages = resourceUsages;
+
+        Node[] nodeViews = new Node[capacities.length];
+        for (int i = 0; i < nodeViews.length; i++) {
+            nodeViews[i] = new Node(this, i);
+        }
+        this.nodes = Collections.unmodifiableList(Arrays.asList(nodeViews));
+
+        Pod[] podViews = new Pod[resourceUsages.length];
+        for (int j = 0; j < podViews.length; j++) {
+            podViews[j] = new Pod(this, j);
+        }
+        this.pods = Collections.unmodifiableList(Arrays.asList(podViews));
+
+        // Ordenação estável dos nós por custo de abertura (crescente)
+        Integer[] order = new Integer[capacities.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> openingCosts[i]));
+        this.nodesByOpeningCost = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            nodesByOpeningCost[i] = order[i];
+        }
+
+        // Idem por custo de alocação
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> allocationCosts[i]).thenComparingInt(i -> i));
+        this.nodesByAllocationCost = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            nodesByAllocationCost[i] = order[i];
+        }
+
+        // Classes de tamanho: tamanhos distintos dos pods (crescente)
+        int[] sorted = resourceUsages.clone();
+        Arrays.sort(sorted);
+        int numClasses = 0;
+        for (int j = 0; j < sorted.length; j++) {
+            if (j == 0 || sorted[j] != sorted[j - 1]) {
+                sorted[numClasses++] = sorted[j];
+            }
+        }
+        this.sizeClasses = Arrays.copyOf(sorted, numClasses);
+
+        // Pods agrupados por classe, mantendo a ordem dos índices dentro de cada classe
+        this.podSizeClasses = new int[resourceUsages.length];
+        this.sizeClassStarts = new int[numClasses + 1];
+        for (int j = 0; j < resourceUsages.length; j++) {
+            podSizeClasses[j] = Arrays.binarySearch(sizeClasses, resourceUsages[j]);
+            sizeClassStarts[podSizeClasses[j] + 1]++;
+        }
+        for (int c = 0; c < numClasses; c++) {
+            sizeClassStarts[c + 1] += sizeClassStarts[c];
+        }
+        this.podsBySizeClass = new int[resourceUsages.length];
+        int[] next = Arrays.copyOf(sizeClassStarts, numClasses);
+        for (int j = 0; j < resourceUsages.length; j++) {
+            podsBySizeClass[next[podSizeClasses[j]]++] = j;
+        }
+    }
+
+    /**
+     * Gera uma instância aleatória com os mesmos parâmetros usados nos experimentos
+     */
+    public static ProblemInstance generate(int numPods, int numNodes, Random random) {
+        int capacityMin = numPods / numNodes + 1; // Specify the minimum node capacity
+        int capacityMax = numPods * 2; // Specify the maximum node capacity
+
+        int resourceUsageMin = 1; // Specify the minimum pod size
+        int resourceUsageMax = 10; // Specify the maximum pod size
+
+        int openingCostInit = 1; // Specify the minimum cost per unit opening node
+        int openingCostEnd = 4 * numNodes; // Specify the maximum cost per unit opening node
+
+        int allocatingCostInit = 1; // Specify the minimum cost per unit allocation cost
+        int allocatingCostEnd = 4 * numNodes; // Specify the maximum cost per unit allocation cost
+
+        int[] capacities = new int[numNodes];
+        double[] openingCosts = new double[numNodes];
+        double[] allocationCosts = new double[numNodes];
+        int[] resourceUsages = new int[numPods];
+
+        // Create nodes using random data
+        for (int i = 0; i < numNodes; i++) {
+            capacities[i] = random.nextInt(capacityMax - capacityMin + 1) + capacityMin;
+            openingCosts[i] = random.nextInt(openingCostEnd - openingCostInit + 1) + openingCostInit;
+            allocationCosts[i] = random.nextInt(allocatingCostEnd - allocatingCostInit + 1) + allocatingCostInit;
+        }
+
+        // Create pods using random data
+        for (int j = 0; j < numPods; j++) {
+            resourceUsages[j] = random.nextInt(resourceUsageMax - resourceUsageMin + 1) + resourceUsageMin;
+        }
+
+        return new ProblemInstance(capacities, openingCosts, allocationCosts, resourceUsages);
+    }
+
+    public int getNumNodes() {
+        return capacities.length;
+    }
+
+    public int getNumPods() {
+        return resourceUsages.length;
+    }
+
+    public int getCapacity(int node) {
+        return capacities[node];
+    }
+
+    public double getOpeningCost(int node) {
+        return openingCosts[node];
+    }
+
+    public double getAllocationCost(int node) {
+        return allocationCosts[node];
+    }
+
+    public int getResourceUsage(int pod) {
+        return resourceUsages[pod];
+    }
+
+    /**
+     * Os arrays abaixo são compartilhados e não devem ser modificados
+     */
+    public int[] getCapacities() {
+        return capacities;
+    }
+
+    public double[] getOpeningCosts() {
+        return openingCosts;
+    }
+
+    public double[] getAllocationCosts() {
+        return allocationCosts;
+    }
+
+    public int[] getResourceUsages() {
+        return resourceUsages;
+    }
+
+    /**
+     * Retorna os índices dos nós ordenados por custo de abertura (crescente)
+     */
+    public int[] getNodesByOpeningCost() {
+        return nodesByOpeningCost;
+    }
+
+    /**
+     * Retorna os índices dos nós ordenados por custo de alocação (crescente)
+     */
+    public int[] getNodesByAllocationCost() {
+        return nodesByAllocationCost;
+    }
+
+    /**
+     * Retorna os tamanhos distintos dos pods (classes de tamanho), em ordem crescente
+     */
+    public int[] getSizeClasses() {
+        return sizeClasses;
+    }
+
+    /**
+     * Retorna a classe de tamanho de cada pod (índice em getSizeClasses)
+     */
+    public int[] getPodSizeClasses() {
+        return podSizeClasses;
+    }
+
+    /**
+     * Retorna os índices dos pods agrupados por classe de tamanho; os pods da
+     * classe c ocupam as posições [getSizeClassStarts()[c], getSizeClassStarts()[c + 1])
+     */
+    public int[] getPodsBySizeClass() {
+        return podsBySizeClass;
+    }
+
+    public int[] getSizeClassStarts() {
+        return sizeClassStarts;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public List<Pod> getPods() {
+        return pods;
+    }
+}
@@ -0,0 +1,26 @@
+import java.util.SplittableRandom;
+
+/**
+ * Fluxos aleatórios determinísticos por tarefa
+ * Cada tarefa (por exemplo, uma iteração do GRASP) recebe o seu SplittableRandom,
+ * derivado só da semente mestra e do índice da tarefa. O resultado de uma tarefa não
+ * depende de quais outras rodaram antes nem de em que thread ela rodou
+ */
+class RandomStreams {
+    private RandomStreams() {
+    }
+
+    public static SplittableRandom forTask(long masterSeed, long taskIndex) {
+        return new SplittableRandom(mix(masterSeed ^ mix(taskIndex)));
+    }
+
+    /**
+     * Mistura de 64 bits do splitmix64: valores próximos dão resultados sem correlação
+     */
+    public static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
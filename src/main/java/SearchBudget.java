@@ -0,0 +1,60 @@
+/**
+ * Limite de uma busca: prazo em tempo de relógio (System.nanoTime), custo alvo e
+ * cancelamento a partir de outra thread
+ * As buscas consultam o limite dentro dos seus laços e, quando ele é atingido,
+ * param devolvendo a melhor solução encontrada até ali. O prazo começa a contar na
+ * criação do objeto
+ */
+class SearchBudget {
+    private final long start;
+    private final long timeLimitNanos; // Long.MAX_VALUE = sem prazo
+    private final double targetCost;   // Double.NEGATIVE_INFINITY = sem alvo
+    private volatile boolean cancelled;
+
+    public SearchBudget(long timeLimitNanos, double targetCost) {
+        this.start = System.nanoTime();
+        this.timeLimitNanos = timeLimitNanos;
+        this.targetCost = targetCost;
+    }
+
+    public static SearchBudget ofMillis(long timeLimitMillis) {
+        return new SearchBudget(timeLimitMillis * 1_000_000L, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Só custo alvo, sem prazo: por exemplo LpBound.getTargetCost(epsilon), que para a
+     * busca quando a solução está a menos de epsilon do limite inferior
+     */
+    public static SearchBudget ofTargetCost(double targetCost) {
+        return new SearchBudget(Long.MAX_VALUE, targetCost);
+    }
+
+    /**
+     * Pede a interrupção das buscas que usam este limite (pode ser chamado de qualquer thread)
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Verifica se a busca foi cancelada ou se o prazo acabou
+     */
+    public boolean isExpired() {
+        if (cancelled) {
+            return true;
+        }
+        return timeLimitNanos != Long.MAX_VALUE && System.nanoTime() - start >= timeLimitNanos;
+    }
+
+    public boolean isTargetReached(double cost) {
+        return cost <= targetCost;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - start;
+    }
+}
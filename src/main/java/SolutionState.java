@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+/**
+ * Estado de uma solução (alocação dos pods e uso de cada nó) em arrays próprios
+ * Ao contrário dos objetos Node e Pod da ProblemInstance, que são compartilhados,
+ * cada SolutionState pertence a quem o criou: várias threads podem construir e
+ * melhorar soluções sobre a mesma instância, cada uma com o seu estado
+ * O estado mantém também uma impressão digital (hash de Zobrist) da alocação e do
+ * conjunto de nós abertos, atualizada a cada alocação/remoção: cada par (pod, nó)
+ * e cada nó aberto contribui com uma chave de 64 bits combinada por XOR
+ */
+class SolutionState {
+    private int[] capacities;
+    private int[] resourceUsages;
+    private int[] allocation; // índice do nó de cada pod (-1 = não alocado)
+    private int[] usages;     // uso atual de cada nó
+    private int[] podCounts;  // número de pods em cada nó
+    private int numNodes;
+    private long hash;
+
+    public SolutionState(ProblemInstance instance) {
+        this.capacities = instance.getCapacities();
+        this.resourceUsages = instance.getResourceUsages();
+        this.allocation = new int[instance.getNumPods()];
+        this.usages = new int[instance.getNumNodes()];
+        this.podCounts = new int[instance.getNumNodes()];
+        this.numNodes = instance.getNumNodes();
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(allocation, -1);
+        Arrays.fill(usages, 0);
+        Arrays.fill(podCounts, 0);
+        hash = 0L;
+    }
+
+    /**
+     * Substitui o estado pela alocação informada (índice do nó de cada pod, -1 = não alocado)
+     */
+    public void load(int[] newAllocation) {
+        clear();
+        for (int j = 0; j < newAllocation.length; j++) {
+            if (newAllocation[j] >= 0) {
+                allocatePod(j, newAllocation[j]);
+            }
+        }
+    }
+
+    /**
+     * Aloca o pod ao nó, removendo-o antes do nó em que estiver
+     */
+    public void allocatePod(int pod, int node) {
+        removePod(pod);
+        allocation[pod] = node;
+        usages[node] += resourceUsages[pod];
+        if (podCounts[node]++ == 0) {
+            hash ^= chaveNoAberto(node);
+        }
+        hash ^= chaveAlocacao(pod, node);
+    }
+
+    public void removePod(int pod) {
+        int node = allocation[pod];
+        if (node >= 0) {
+            allocation[pod] = -1;
+            usages[node] -= resourceUsages[pod];
+            if (--podCounts[node] == 0) {
+                hash ^= chaveNoAberto(node);
+            }
+            hash ^= chaveAlocacao(pod, node);
+        }
+    }
+
+    public int getNode(int pod) {
+        return allocation[pod];
+    }
+
+    public int getResidualCapacity(int node) {
+        return capacities[node] - usages[node];
+    }
+
+    public boolean canAllocatePod(int pod, int node) {
+        return resourceUsages[pod] <= getResidualCapacity(node);
+    }
+
+    public int getPodCount(int node) {
+        return podCounts[node];
+    }
+
+    public boolean isEmpty(int node) {
+        return podCounts[node] == 0;
+    }
+
+    /**
+     * Hash de Zobrist da alocação e dos nós abertos: estados iguais têm o mesmo hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    // As chaves são derivadas do índice por mistura (splitmix64), sem tabela P·N
+    private long chaveAlocacao(int pod, int node) {
+        return RandomStreams.mix((long) pod * numNodes + node);
+    }
+
+    private long chaveNoAberto(int node) {
+        return RandomStreams.mix(~(long) node);
+    }
+
+    /**
+     * Retorna o vetor de alocação (não deve ser modificado)
+     */
+    public int[] getAllocation() {
+        return allocation;
+    }
+}
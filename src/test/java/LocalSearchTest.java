@@ -0,0 +1,169 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Testes de regressão da busca local (sem framework: java LocalSearchTest)
+ * Compila com LocalSearchScheduler.java, onde a classe LocalSearch é definida
+ */
+@SuppressWarnings("auxiliaryclass") // LocalSearch é auxiliar do LocalSearchScheduler.java, como no resto do repositório
+public class LocalSearchTest {
+    public static void main(String[] args) {
+        primeiraMelhoriaParaNoCustoAlvo();
+        primeiraMelhoriaReavaliaPodsAoFecharNo();
+        primeiraMelhoriaSegueCaminhoSemBitsNaoOlhe();
+        System.out.println("LocalSearchTest: OK");
+    }
+
+    /**
+     * A primeira melhoria, como a melhor melhoria, para assim que o custo corrente
+     * chega ao custo alvo do SearchBudget
+     */
+    static void primeiraMelhoriaParaNoCustoAlvo() {
+        ProblemInstance instance = ProblemInstance.generate(1000, 50, new Random(100));
+        GreedyHeuristic greedy = new GreedyHeuristic(instance);
+        greedy.execute();
+        int[] initialAllocation = greedy.getAllocation();
+        BitSet initialOpenedNodes = greedy.getOpenedNodes();
+
+        LocalSearch completa = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
+        completa.setFirstImprovement(true);
+        completa.execute();
+        double custoInicial = greedy.calculateTotalCost();
+        double custoConvergido = completa.calculateTotalCost();
+        check(completa.isConverged(), "sem budget a busca converge");
+        check(custoConvergido < custoInicial, "a busca melhora a solução inicial");
+
+        double alvo = (custoInicial + custoConvergido) / 2;
+        LocalSearch limitada = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
+        limitada.setFirstImprovement(true);
+        limitada.setBudget(SearchBudget.ofTargetCost(alvo));
+        limitada.execute();
+        double custo = limitada.calculateTotalCost();
+        check(!limitada.isConverged(), "o custo alvo interrompe a busca");
+        check(custo <= alvo, "custo " + custo + " acima do alvo " + alvo);
+        check(custo > custoConvergido, "a busca não parou no alvo: " + custo);
+    }
+
+    /**
+     * Bits "não olhe": o pod 0, sozinho no nó caro 2, não cabe nos nós 0 e 1 e fica
+     * marcado. O pod 1 sai do nó 0, que fecha vazio e passa a caber o pod 0; mover
+     * para ele (reabrindo-o) melhora, então o bit do pod 0 tem que ser invalidado
+     */
+    static void primeiraMelhoriaReavaliaPodsAoFecharNo() {
+        int[] capacities = {10, 10, 10};
+        double[] openingCosts = {1, 1, 100};
+        double[] allocationCosts = {1, 1, 100};
+        int[] resourceUsages = {10, 5, 5};
+        ProblemInstance instance = new ProblemInstance(capacities, openingCosts, allocationCosts, resourceUsages);
+        int[] initialAllocation = {2, 0, 1};
+        BitSet initialOpenedNodes = new BitSet();
+        initialOpenedNodes.set(0, 3);
+
+        LocalSearch search = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
+        search.setFirstImprovement(true);
+        search.execute();
+        check(search.isConverged(), "a busca converge");
+        check(search.getAllocation()[0] == 0, "o pod 0 ficou no nó " + search.getAllocation()[0]);
+        check(search.calculateTotalCost() == 5.0, "custo " + search.calculateTotalCost());
+    }
+
+    /**
+     * Os bits "não olhe" só pulam pods sem movimento de melhoria: a busca faz os
+     * mesmos movimentos que a primeira melhoria que avalia todos os pods, a partir de
+     * alocações iniciais aleatórias
+     */
+    static void primeiraMelhoriaSegueCaminhoSemBitsNaoOlhe() {
+        for (int seed = 0; seed < 3000; seed++) {
+            Random random = new Random(seed);
+            int numPods = 5 + random.nextInt(40);
+            int numNodes = 2 + random.nextInt(8);
+            ProblemInstance instance = ProblemInstance.generate(numPods, numNodes, new Random(seed));
+            int[] capacities = instance.getCapacities();
+            int[] usages = instance.getResourceUsages();
+
+            // Alocação inicial aleatória: até 4N sorteios, senão o primeiro nó em que o
+            // pod couber (instâncias em que ela não cabe são puladas)
+            int[] initialAllocation = new int[numPods];
+            int[] used = new int[numNodes];
+            BitSet initialOpenedNodes = new BitSet(numNodes);
+            boolean viavel = true;
+            for (int j = 0; j < numPods; j++) {
+                int node = -1;
+                for (int k = 0; k < 4 * numNodes && node < 0; k++) {
+                    int candidato = random.nextInt(numNodes);
+                    if (used[candidato] + usages[j] <= capacities[candidato]) {
+                        node = candidato;
+                    }
+                }
+                for (int candidato = 0; candidato < numNodes && node < 0; candidato++) {
+                    if (used[candidato] + usages[j] <= capacities[candidato]) {
+                        node = candidato;
+                    }
+                }
+                viavel = node >= 0;
+                if (!viavel) {
+                    break;
+                }
+                initialAllocation[j] = node;
+                used[node] += usages[j];
+                initialOpenedNodes.set(node);
+            }
+            if (!viavel) {
+                continue;
+            }
+
+            LocalSearch search = new LocalSearch(instance, initialAllocation, initialOpenedNodes);
+            search.setFirstImprovement(true);
+            search.execute();
+            int[] esperada = primeiraMelhoriaSimples(instance, initialAllocation);
+            check(Arrays.equals(esperada, search.getAllocation()), "caminho diferente na semente " + seed);
+        }
+    }
+
+    // Primeira melhoria sem bits "não olhe": pods em ordem circular, primeiro destino que melhora
+    private static int[] primeiraMelhoriaSimples(ProblemInstance instance, int[] initialAllocation) {
+        int numNodes = instance.getNumNodes();
+        int[] allocation = initialAllocation.clone();
+        int[] used = new int[numNodes];
+        int[] count = new int[numNodes];
+        for (int j = 0; j < allocation.length; j++) {
+            used[allocation[j]] += instance.getResourceUsage(j);
+            count[allocation[j]]++;
+        }
+
+        int pod = 0;
+        int semMelhoria = 0;
+        while (semMelhoria < allocation.length) {
+            int current = allocation[pod];
+            int size = instance.getResourceUsage(pod);
+            int target = -1;
+            for (int node = 0; node < numNodes && target < 0; node++) {
+                double delta = instance.getAllocationCost(node) - instance.getAllocationCost(current)
+                        - (count[current] == 1 ? instance.getOpeningCost(current) : 0)
+                        + (count[node] == 0 ? instance.getOpeningCost(node) : 0);
+                if (node != current && delta < 0 && used[node] + size <= instance.getCapacity(node)) {
+                    target = node;
+                }
+            }
+            if (target < 0) {
+                semMelhoria++;
+            } else {
+                used[current] -= size;
+                count[current]--;
+                used[target] += size;
+                count[target]++;
+                allocation[pod] = target;
+                semMelhoria = 0;
+            }
+            pod = (pod + 1) % allocation.length;
+        }
+        return allocation;
+    }
+
+    static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}